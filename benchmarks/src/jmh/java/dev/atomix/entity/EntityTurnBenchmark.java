@@ -0,0 +1,95 @@
+package dev.atomix.entity;
+
+import com.badlogic.gdx.math.RandomXS128;
+import dev.atomix.level.DijkstraMap;
+import dev.atomix.level.Map;
+import dev.atomix.level.MapGenerator;
+import dev.atomix.level.TileGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures one turn of an {@link EntityWorld} filled with monsters spread over the floor of a generated level, half of
+ * them chasing the player through a {@link DijkstraMap} and half wandering at half speed. With a small wake radius only
+ * the monsters near the player stay scheduled; the huge radius keeps every monster awake, as if there were no dormant
+ * set. {@code churn} also spawns projectiles every turn that expire a few turns later, to show the pools keep a turn
+ * allocation-free.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityTurnBenchmark {
+
+    private static final long SEED = 0x5EEDL;
+    private static final int PROJECTILES_PER_TURN = 100;
+
+    @Param({ "1000", "10000" })
+    public int entities;
+
+    @Param({ "24", "100000" })
+    public int wakeRadius;
+
+    private EntityWorld world;
+    private RandomXS128 random;
+    private int[] floorX, floorY;
+    private int playerX, playerY;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        TileGrid tiles = new MapGenerator(SEED, 256, 192).setRoomCount(32, 64).generate().getTiles();
+
+        int floors = 0;
+        floorX = new int[tiles.getWidth() * tiles.getHeight()];
+        floorY = new int[floorX.length];
+        for (int x = 0; x < tiles.getWidth(); ++x) {
+            for (int y = 0; y < tiles.getHeight(); ++y) {
+                if (tiles.get(x, y) != Map.TileType.FLOOR) continue;
+                floorX[floors] = x;
+                floorY[floors++] = y;
+            }
+        }
+
+        random = new RandomXS128(SEED);
+        DijkstraMap goals = new DijkstraMap(tiles);
+        playerX = floorX[floors / 2];
+        playerY = floorY[floors / 2];
+        goals.setGoal(playerX, playerY);
+
+        world = new EntityWorld(tiles, goals, SEED, wakeRadius, null, 16);
+        for (int i = 0; i < entities; ++i) {
+            int tile = random.nextInt(floors);
+            if ((i & 1) == 0) {
+                world.spawnMonster(floorX[tile], floorY[tile], null, AIComponent.Behavior.CHASE, 16, TurnScheduler.NORMAL_DELAY);
+            } else {
+                world.spawnMonster(floorX[tile], floorY[tile], null, AIComponent.Behavior.WANDER, 16, 2 * TurnScheduler.NORMAL_DELAY);
+            }
+        }
+
+        floorX = Arrays.copyOf(floorX, floors);
+        floorY = Arrays.copyOf(floorY, floors);
+    }
+
+    @Benchmark
+    public EntityWorld turn() {
+        world.turn(playerX, playerY);
+        return world;
+    }
+
+    @Benchmark
+    public EntityWorld churn() {
+        for (int i = 0; i < PROJECTILES_PER_TURN; ++i) {
+            int tile = random.nextInt(floorX.length);
+            int direction = random.nextInt(4);
+            world.spawnProjectile(floorX[tile], floorY[tile], direction == 0 ? -1 : direction == 1 ? 1 : 0,
+                direction == 2 ? -1 : direction == 3 ? 1 : 0, 8, null);
+        }
+
+        world.turn(playerX, playerY);
+        return world;
+    }
+}
@@ -0,0 +1,82 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link OccupancyGrid} with scanning every entity, for a radius query around a random tile, and measures
+ * moving an entity through the grid. Entities are spread uniformly over a 256x192 grid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class OccupancyBenchmark {
+
+    private static final int WIDTH = 256, HEIGHT = 192;
+
+    @Param({ "1000", "10000" })
+    public int entities;
+
+    @Param({ "4", "12" })
+    public int radius;
+
+    private OccupancyGrid occupancy;
+    private ImmutableArray<Entity> all;
+    private Array<Entity> found;
+    private RandomXS128 random;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        PooledEngine engine = new PooledEngine();
+        occupancy = new OccupancyGrid(WIDTH, HEIGHT);
+        engine.addEntityListener(OccupancyGrid.FAMILY, occupancy);
+
+        random = new RandomXS128(0x5EEDL);
+        for (int i = 0; i < entities; ++i) {
+            Entity entity = engine.createEntity();
+            PositionComponent position = engine.createComponent(PositionComponent.class);
+            position.x = random.nextInt(WIDTH);
+            position.y = random.nextInt(HEIGHT);
+            entity.add(position);
+            engine.addEntity(entity);
+        }
+
+        all = engine.getEntitiesFor(OccupancyGrid.FAMILY);
+        found = new Array<>(false, entities);
+    }
+
+    @Benchmark
+    public int radiusGrid() {
+        found.clear();
+        return occupancy.queryRadius(random.nextInt(WIDTH), random.nextInt(HEIGHT), radius, found);
+    }
+
+    @Benchmark
+    public int radiusScan() {
+        found.clear();
+        int x = random.nextInt(WIDTH), y = random.nextInt(HEIGHT);
+        int radiusSquared = radius * radius;
+
+        for (int i = 0; i < all.size(); ++i) {
+            PositionComponent position = Mappers.POSITION.get(all.get(i));
+            int dx = position.x - x, dy = position.y - y;
+            if (dx * dx + dy * dy <= radiusSquared) found.add(all.get(i));
+        }
+        return found.size;
+    }
+
+    @Benchmark
+    public OccupancyGrid move() {
+        occupancy.move(all.get(random.nextInt(all.size())), random.nextInt(WIDTH), random.nextInt(HEIGHT));
+        return occupancy;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures single {@link AStar} queries between the first and last room of a generated level, on the final walled
+ * layout the game actually plays on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class AStarBenchmark {
+
+    @Param({ "80x60", "256x192", "512x512", "1024x1024", "2048x2048" })
+    public String size;
+
+    private TileGrid tiles;
+    private AStar pathFinder;
+    private IntArray path;
+    private Room start, goal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] parts = size.split("x");
+        MapGenerator generator = new MapGenerator(MapGenerationBenchmark.SEED, Integer.parseInt(parts[0]), Integer.parseInt(parts[1])).generate();
+
+        tiles = generator.getTiles();
+        pathFinder = new AStar(tiles.getWidth(), tiles.getHeight());
+        path = new IntArray();
+        start = generator.getRooms().get(0);
+        goal = generator.getRooms().get(generator.getRooms().size() - 1);
+    }
+
+    @Benchmark
+    public IntArray findPath() {
+        pathFinder.findPath(start.centerX(), start.centerY(), goal.centerX(), goal.centerY(),
+            (x, y) -> tiles.get(x, y) != Map.TileType.WALL, path);
+        return path;
+    }
+}
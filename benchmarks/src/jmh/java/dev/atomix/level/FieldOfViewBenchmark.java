@@ -0,0 +1,42 @@
+package dev.atomix.level;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures recomputing a {@link FieldOfView} after a step, alternating between two neighboring tiles in the middle of
+ * the first room so every call clears and recasts a full field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldOfViewBenchmark {
+
+    @Param({ "8", "16", "24", "32", "40" })
+    public int radius;
+
+    private FieldOfView vision;
+    private int x, y;
+    private boolean step;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        MapGenerator generator = new MapGenerator(MapGenerationBenchmark.SEED, 512, 512).setRoomCount(64, 128).generate();
+        Room room = generator.getRooms().get(0);
+
+        vision = new FieldOfView(generator.getTiles());
+        x = room.centerX();
+        y = room.centerY();
+    }
+
+    @Benchmark
+    public FieldOfView compute() {
+        step = !step;
+        vision.compute(step ? x + 1 : x, y, radius);
+        return vision;
+    }
+}
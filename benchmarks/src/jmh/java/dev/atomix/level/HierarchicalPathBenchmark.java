@@ -0,0 +1,66 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link HierarchicalPathfinder} with flat {@link AStar} on the same query between the first and last room of a
+ * generated level, and measures building the abstract graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class HierarchicalPathBenchmark {
+
+    @Param({ "256x192", "1024x1024" })
+    public String size;
+
+    private TileGrid tiles;
+    private AStar.Passable passable;
+    private AStar flat;
+    private HierarchicalPathfinder hierarchical;
+    private IntArray path;
+    private Room start, goal;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] parts = size.split("x");
+        int width = Integer.parseInt(parts[0]), height = Integer.parseInt(parts[1]);
+
+        // Enough rooms to spread corridors across the whole level
+        MapGenerator generator = new MapGenerator(MapGenerationBenchmark.SEED, width, height)
+            .setRoomCount(width / 8, width / 4)
+            .generate();
+
+        tiles = generator.getTiles();
+        passable = (x, y) -> tiles.get(x, y) == Map.TileType.FLOOR;
+        flat = new AStar(width, height);
+        hierarchical = new HierarchicalPathfinder(tiles, passable);
+        path = new IntArray();
+        start = generator.getRooms().get(0);
+        goal = generator.getRooms().get(generator.getRooms().size() - 1);
+    }
+
+    @Benchmark
+    public IntArray flat() {
+        flat.findPath(start.centerX(), start.centerY(), goal.centerX(), goal.centerY(), passable, path);
+        return path;
+    }
+
+    @Benchmark
+    public IntArray hierarchical() {
+        hierarchical.findPath(start.centerX(), start.centerY(), goal.centerX(), goal.centerY(), path);
+        return path;
+    }
+
+    @Benchmark
+    public HierarchicalPathfinder build() {
+        hierarchical.rebuild();
+        return hierarchical;
+    }
+}
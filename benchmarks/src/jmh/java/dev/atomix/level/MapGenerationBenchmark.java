@@ -0,0 +1,108 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full {@link Map} construction and each {@link MapGenerator} phase on its own, across map sizes. Runs headless:
+ * the texture regions are empty stubs and nothing touches GL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class MapGenerationBenchmark {
+
+    static final long SEED = 0x5EEDL;
+
+    @Param({ "80x60", "256x192", "512x512", "1024x1024", "2048x2048" })
+    public String size;
+
+    int width, height;
+    TextureRegion stub;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] parts = size.split("x");
+        width = Integer.parseInt(parts[0]);
+        height = Integer.parseInt(parts[1]);
+        stub = new TextureRegion();
+    }
+
+    /** A generator run up to, but not including, the phase being measured. Phases mutate it, so it's rebuilt per call. */
+    @State(Scope.Thread)
+    public static class Phase {
+        MapGenerator generator;
+        List<Room> rooms;
+
+        MapGenerator prepare(MapGenerationBenchmark benchmark) {
+            generator = new MapGenerator(SEED, benchmark.width, benchmark.height);
+            return generator;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeRooms extends Phase {
+        @Setup(Level.Invocation)
+        public void setup(MapGenerationBenchmark benchmark) {
+            prepare(benchmark).fillWithNoneTiles();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeConnect extends Phase {
+        @Setup(Level.Invocation)
+        public void setup(MapGenerationBenchmark benchmark) {
+            prepare(benchmark).fillWithNoneTiles();
+            rooms = generator.createRooms();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BeforeWalls extends Phase {
+        @Setup(Level.Invocation)
+        public void setup(MapGenerationBenchmark benchmark) {
+            prepare(benchmark).fillWithNoneTiles();
+            rooms = generator.createRooms();
+            generator.connectRooms(rooms);
+        }
+    }
+
+    @Benchmark
+    public Map construct() {
+        return new Map(width, height, SEED, stub, stub, stub);
+    }
+
+    @Benchmark
+    public MapGenerator generate() {
+        return new MapGenerator(SEED, width, height).generate();
+    }
+
+    @Benchmark
+    public TileGrid fill(BeforeRooms phase) {
+        phase.generator.fillWithNoneTiles();
+        return phase.generator.getTiles();
+    }
+
+    @Benchmark
+    public List<Room> rooms(BeforeRooms phase) {
+        return phase.generator.createRooms();
+    }
+
+    @Benchmark
+    public TileGrid connect(BeforeConnect phase) {
+        phase.generator.connectRooms(phase.rooms);
+        return phase.generator.getTiles();
+    }
+
+    @Benchmark
+    public TileGrid walls(BeforeWalls phase) {
+        phase.generator.setWalls();
+        return phase.generator.getTiles();
+    }
+}
@@ -4,48 +4,148 @@ import com.badlogic.gdx.assets.AssetDescriptor;
 import com.badlogic.gdx.assets.AssetLoaderParameters;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import dev.atomix.metrics.Counter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * A basic wrapper class around {@link AssetManager} that can be passed around with more control
+ * <p>
+ * Assets taken with {@link #acquire} are reference counted. Releasing the last reference doesn't unload an asset right
+ * away, it is parked with the other unused assets and only unloaded, least recently released first, once the textures
+ * held in memory go over the texture budget. Acquiring a parked asset again costs nothing.
+ * <p>
+ * Assets are only ever loaded and unloaded through {@link #acquire} and {@link #release}, so the counts always match what
+ * the {@link AssetManager} holds.
  */
 public class Assets {
 
+    /** Default texture budget, in bytes */
+    public static final long DEFAULT_TEXTURE_BUDGET = 64L * 1024 * 1024;
+
+    private static final Counter REUSED = Game.METRICS.counter("assets.reused");
+    private static final Counter EVICTED = Game.METRICS.counter("assets.evicted");
+
     private final AssetManager m_Manager;
+    private final long m_TextureBudget;
+
+    private final HashMap<String, Resource> m_Resources = new HashMap<>();
+    private final LinkedHashMap<String, Resource> m_Unused = new LinkedHashMap<>();
 
     public Assets() {
+        this(DEFAULT_TEXTURE_BUDGET);
+    }
+
+    /** @param textureBudget how many bytes of textures may stay loaded before unused ones are unloaded */
+    public Assets(long textureBudget) {
         m_Manager = new AssetManager(new InternalFileHandleResolver(), true);
+        m_TextureBudget = textureBudget;
     }
 
-    public boolean update(int millis) {
-        return m_Manager.update(millis);
+    /**
+     * Takes a reference to an asset, queueing it for loading unless it is already loaded or queued.
+     *
+     * @return true if the asset was still resident from an earlier acquire
+     */
+    public <T> boolean acquire(String path, Class<T> type) {
+        return acquire(path, type, null);
     }
 
-    public boolean update() {
-        return m_Manager.update();
+    public <T> boolean acquire(AssetDescriptor<T> descriptor) {
+        // AssetDescriptor keeps its parameters as a raw type, they were given for this descriptor's T
+        @SuppressWarnings("unchecked")
+        AssetLoaderParameters<T> parameters = descriptor.params;
+        return acquire(descriptor.fileName, descriptor.type, parameters);
     }
 
-    public void finishLoading() {
-        m_Manager.finishLoading();
+    /**
+     * Like {@link #acquire(String, Class)}, with parameters for the loader. They are only used when the asset is not
+     * loaded or queued yet.
+     */
+    public <T> boolean acquire(String path, Class<T> type, AssetLoaderParameters<T> parameters) {
+        Resource resource = m_Resources.get(path);
+        if(resource == null) {
+            resource = new Resource(type);
+            m_Resources.put(path, resource);
+            m_Manager.load(path, type, parameters);
+        } else if(resource.type != type) {
+            throw new IllegalArgumentException("Asset " + path + " was already acquired as a " + resource.type.getSimpleName());
+        }
+
+        boolean resident = resource.references == 0 && m_Unused.remove(path) != null;
+        if(resident) REUSED.increment();
+
+        resource.references++;
+        return resident;
     }
 
-    public void unload(String name) {
-        m_Manager.unload(name);
+    /** Drops a reference to an asset. Once none are left, it is kept until the texture budget needs the room. */
+    public void release(String path) {
+        Resource resource = m_Resources.get(path);
+        if(resource == null || resource.references == 0) throw new IllegalStateException("Asset " + path + " was not acquired");
+
+        if(--resource.references == 0) {
+            m_Unused.put(path, resource);
+            trim();
+        }
     }
 
-    public void clear() {
-        m_Manager.clear();
+    /** @return the number of references held on an asset */
+    public int getReferences(String path) {
+        Resource resource = m_Resources.get(path);
+        return resource == null ? 0 : resource.references;
     }
 
-    public <T> void load(AssetDescriptor<T> descriptor) {
-        m_Manager.load(descriptor);
+    /** @return the bytes taken by every loaded texture, in use or not */
+    public long getTextureMemory() {
+        long total = 0;
+        for(Map.Entry<String, Resource> entry : m_Resources.entrySet())
+            total += measure(entry.getKey(), entry.getValue());
+        return total;
     }
 
-    public <T> void load(String name, Class<T> type) {
-        m_Manager.load(name, type);
+    public long getTextureBudget() {
+        return m_TextureBudget;
     }
 
-    public <T> void load(String name, Class<T> type, AssetLoaderParameters<T> parameters) {
-        m_Manager.load(name, type, parameters);
+    /** Unloads every unused asset right away, whatever the budget. */
+    public void purge() {
+        for(Iterator<String> paths = m_Unused.keySet().iterator(); paths.hasNext();) {
+            evict(paths.next());
+            paths.remove();
+        }
+    }
+
+    public boolean update(int millis) {
+        boolean finished = m_Manager.update(millis);
+        if(finished) trim();
+        return finished;
+    }
+
+    public boolean update() {
+        boolean finished = m_Manager.update();
+        if(finished) trim();
+        return finished;
+    }
+
+    public void finishLoading() {
+        m_Manager.finishLoading();
+        trim();
+    }
+
+    /** Blocks until a single asset has loaded, leaving the rest of the queue alone. */
+    public void finishLoading(String path) {
+        m_Manager.finishLoadingAsset(path);
+        trim();
+    }
+
+    public boolean isLoaded(String path) {
+        return m_Manager.isLoaded(path);
     }
 
     public float getProgress() {
@@ -71,6 +171,68 @@ public class Assets {
 
     public void dispose() {
         m_Manager.dispose();
+        m_Resources.clear();
+        m_Unused.clear();
+    }
+
+    // Unloads the least recently released assets until the loaded textures fit the budget again
+    private void trim() {
+        if(m_Unused.isEmpty()) return;
+
+        long memory = getTextureMemory();
+        Iterator<Map.Entry<String, Resource>> entries = m_Unused.entrySet().iterator();
+        while(memory > m_TextureBudget && entries.hasNext()) {
+            Map.Entry<String, Resource> entry = entries.next();
+            memory -= measure(entry.getKey(), entry.getValue());
+            evict(entry.getKey());
+            entries.remove();
+        }
+    }
+
+    private void evict(String path) {
+        Game.LOGGER.debug("Unloading unused asset " + path);
+        m_Resources.remove(path);
+        m_Manager.unload(path);
+        EVICTED.increment();
+    }
+
+    // Texture bytes are measured once, the first time the asset is seen loaded
+    private long measure(String path, Resource resource) {
+        if(resource.bytes < 0 && m_Manager.isLoaded(path)) {
+            Object asset = m_Manager.get(path);
+            if(asset instanceof Texture texture) {
+                resource.bytes = sizeOf(texture);
+            } else if(asset instanceof TextureAtlas atlas) {
+                resource.bytes = 0;
+                for(Texture texture : atlas.getTextures())
+                    resource.bytes += sizeOf(texture);
+            } else {
+                resource.bytes = 0;
+            }
+        }
+        return Math.max(0, resource.bytes);
+    }
+
+    private static long sizeOf(Texture texture) {
+        int bytesPerPixel = switch (texture.getTextureData().getFormat()) {
+            case Alpha, Intensity -> 1;
+            case LuminanceAlpha, RGB565, RGBA4444 -> 2;
+            case RGB888 -> 3;
+            case RGBA8888 -> 4;
+        };
+
+        long bytes = (long) texture.getWidth() * texture.getHeight() * bytesPerPixel;
+        return texture.getMinFilter().isMipMap() ? bytes * 4 / 3 : bytes;
+    }
+
+    private static final class Resource {
+        final Class<?> type;
+        int references;
+        long bytes = -1;
+
+        Resource(Class<?> type) {
+            this.type = type;
+        }
     }
 
 }
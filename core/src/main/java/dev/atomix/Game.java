@@ -2,19 +2,34 @@ package dev.atomix;
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.utils.Logger;
 import com.badlogic.gdx.utils.ScreenUtils;
 
+import dev.atomix.metrics.MetricsOverlay;
+import dev.atomix.metrics.MetricsRegistry;
+import dev.atomix.metrics.MetricsReporter;
+import dev.atomix.metrics.Timer;
 import dev.atomix.screens.GameScreen;
+import dev.atomix.screens.LoadingScreen;
 import dev.atomix.screens.MainScreen;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class Game extends ApplicationAdapter {
 
     public static final Logger LOGGER = new Logger("Main", Logger.DEBUG);
+    public static final MetricsRegistry METRICS = new MetricsRegistry();
+
+    private static final Timer FRAME_TIME = METRICS.timer("frame.time");
+    private static final Timer FRAME_RENDER = METRICS.timer("frame.render");
+    private static final float METRICS_INTERVAL = 10.0f;
 
     private static final Map<String, Screen> SCREENS = new HashMap<>();
 
@@ -30,32 +45,89 @@ public class Game extends ApplicationAdapter {
         if(s_Screen != null) s_Screen.show();
     }
 
+    private static ForkJoinPool s_Workers;
+
+    /**
+     * @return the process-wide pool that level generation and other background work borrows. Before {@link #create()}
+     * runs, or when running headless without a {@link Game}, this falls back to {@link ForkJoinPool#commonPool()}.
+     */
+    public static ForkJoinPool GetWorkers() {
+        ForkJoinPool workers = s_Workers;
+        return workers != null ? workers : ForkJoinPool.commonPool();
+    }
+
     private Assets m_Assets;
+    private MetricsOverlay m_Overlay;
+    private MetricsReporter m_Reporter;
+    private ExecutorService m_ReportWriter;
 
     @Override
     public void create() {
-        m_Assets = new Assets();
+        // Leave a core for the render thread
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        s_Workers = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("worker-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
 
+        m_Assets = new Assets();
+        m_Overlay = new MetricsOverlay(METRICS);
+
+        // Reports get a thread of their own, so writing them never takes a worker from level generation
+        m_ReportWriter = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        m_Reporter = new MetricsReporter(METRICS, Gdx.files.local("metrics.csv").file().toPath(),
+            MetricsReporter.Format.CSV, METRICS_INTERVAL, m_ReportWriter);
+
+        GameScreen game = new GameScreen(m_Assets);
         SCREENS.put("main", new MainScreen(m_Assets));
-        SCREENS.put("game", new GameScreen(m_Assets));
+        SCREENS.put("game", game);
+        SCREENS.put("loading", new LoadingScreen(m_Assets, game, "game"));
 
-        SetScreen("game");
+        SetScreen("loading");
     }
 
     @Override
     public void render() {
+        float delta = Gdx.graphics.getDeltaTime();
+        long start = FRAME_RENDER.start();
+
         ScreenUtils.clear(0.15f, 0.15f, 0.2f, 1f);
-        if(s_Screen != null) s_Screen.render(Gdx.graphics.getDeltaTime());
+        if(s_Screen != null) s_Screen.render(delta);
+
+        FRAME_RENDER.stop(start);
+        FRAME_TIME.record((long) (delta * 1.0e9));
+
+        if(Gdx.input.isKeyJustPressed(Input.Keys.F3)) m_Overlay.toggle();
+        m_Overlay.render(delta);
+        m_Reporter.update(delta);
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        if(s_Screen != null) s_Screen.resize(width, height);
     }
 
     @Override
     public void dispose() {
-        m_Assets.dispose();
+        m_Overlay.dispose();
 
+        // Screens give their assets back on hide, so they go before the assets themselves
         SetScreen("nil");
         for(Screen screen : SCREENS.values())
             screen.dispose();
 
         SCREENS.clear();
+        m_Assets.dispose();
+
+        // Last report goes out before the thread that writes it is stopped
+        m_Reporter.flush();
+        m_ReportWriter.shutdown();
+        s_Workers.shutdownNow();
+        s_Workers = null;
     }
 }
@@ -0,0 +1,38 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/** Makes an entity act on its own every turn. */
+public class AIComponent implements Component, Pool.Poolable {
+
+    public enum Behavior {
+        /** Never moves */
+        IDLE,
+        /** Steps in a random direction */
+        WANDER,
+        /** Walks toward the nearest goal once it is within sight, wandering otherwise */
+        CHASE
+    }
+
+    public Behavior behavior = Behavior.IDLE;
+
+    /** How many steps away a goal can be before a chasing entity notices it */
+    public int sight;
+
+    /** Time between two actions, {@link TurnScheduler#NORMAL_DELAY} at normal speed */
+    public int delay = TurnScheduler.NORMAL_DELAY;
+
+    // Kept by the TurnScheduler: when the entity acts next, and which of its buckets holds it
+    long nextAct;
+    int bucket = -1, bucketIndex = -1;
+
+    @Override
+    public void reset() {
+        behavior = Behavior.IDLE;
+        sight = 0;
+        delay = TurnScheduler.NORMAL_DELAY;
+        nextAct = 0L;
+        bucket = bucketIndex = -1;
+    }
+}
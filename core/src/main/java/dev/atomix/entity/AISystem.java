@@ -0,0 +1,116 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.math.RandomXS128;
+import dev.atomix.level.DijkstraMap;
+import dev.atomix.level.Map;
+import dev.atomix.level.TileGrid;
+
+/**
+ * Moves entities with an {@link AIComponent} one tile whenever the {@link TurnScheduler} says they are due. Chasers
+ * read their step from a shared {@link DijkstraMap}, so an action costs a few array reads however many are chasing.
+ * Actors never step onto a tile another actor holds; the {@link OccupancyGrid} answers that without a scan.
+ */
+public class AISystem extends EntitySystem {
+
+    public static final Family FAMILY = Family.all(PositionComponent.class, AIComponent.class).get();
+
+    // 4-directional steps (left, right, down, up)
+    private static final int[] STEP_X = { -1, 1, 0, 0 };
+    private static final int[] STEP_Y = { 0, 0, -1, 1 };
+
+    private final TileGrid m_Tiles;
+    private final OccupancyGrid m_Occupancy;
+    private final RandomXS128 m_Random;
+    private final TurnScheduler m_Scheduler;
+    private final TurnScheduler.Action m_Act = this::act;
+    private DijkstraMap m_Goals;
+
+    private int m_PlayerX, m_PlayerY;
+
+    public AISystem(TileGrid tiles, OccupancyGrid occupancy, DijkstraMap goals, long seed, int wakeRadius, int priority) {
+        super(priority);
+        m_Tiles = tiles;
+        m_Occupancy = occupancy;
+        m_Goals = goals;
+        m_Random = new RandomXS128(seed);
+        m_Scheduler = new TurnScheduler(tiles, wakeRadius);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(FAMILY, m_Scheduler);
+        for (Entity entity : engine.getEntitiesFor(FAMILY))
+            m_Scheduler.schedule(entity);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(m_Scheduler);
+        for (Entity entity : engine.getEntitiesFor(FAMILY))
+            m_Scheduler.unschedule(entity);
+    }
+
+    /** Sets where the player stands, which decides which actors are awake on the next update. */
+    public void setPlayer(int x, int y) {
+        m_PlayerX = x;
+        m_PlayerY = y;
+    }
+
+    /** Runs one player turn worth of actions. */
+    @Override
+    public void update(float deltaTime) {
+        m_Scheduler.advance(TurnScheduler.NORMAL_DELAY, m_PlayerX, m_PlayerY, m_Act);
+    }
+
+    public TurnScheduler getScheduler() {
+        return m_Scheduler;
+    }
+
+    /** @param goals the field chasers follow, or null to have them wander */
+    public void setGoals(DijkstraMap goals) {
+        m_Goals = goals;
+    }
+
+    private void act(Entity entity) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        AIComponent ai = Mappers.AI.get(entity);
+
+        switch (ai.behavior) {
+            case WANDER -> wander(entity, position);
+            case CHASE -> {
+                if (!chase(entity, position, ai.sight)) wander(entity, position);
+            }
+            default -> { }
+        }
+    }
+
+    // @return false if no goal is within sight
+    private boolean chase(Entity entity, PositionComponent position, int sight) {
+        if (m_Goals == null || m_Goals.getDistance(position.x, position.y) > sight) return false;
+
+        int next = m_Goals.next(position.x, position.y);
+        if (next < 0) return true; // Already standing on a goal
+
+        // Blocked by another actor: wait for it to move on rather than wander off
+        int x = m_Goals.unpackX(next), y = m_Goals.unpackY(next);
+        if (!m_Occupancy.contains(x, y, FAMILY)) m_Occupancy.move(entity, x, y);
+        return true;
+    }
+
+    private void wander(Entity entity, PositionComponent position) {
+        int direction = m_Random.nextInt(STEP_X.length);
+        int x = position.x + STEP_X[direction], y = position.y + STEP_Y[direction];
+        if (!isFloor(m_Tiles, x, y) || m_Occupancy.contains(x, y, FAMILY)) return;
+
+        m_Occupancy.move(entity, x, y);
+    }
+
+    static boolean isFloor(TileGrid tiles, int x, int y) {
+        return x >= 0 && y >= 0 && x < tiles.getWidth() && y < tiles.getHeight()
+            && tiles.getId(x, y) == Map.TileType.FLOOR.ordinal();
+    }
+}
@@ -0,0 +1,187 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.PooledEngine;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import dev.atomix.level.DijkstraMap;
+import dev.atomix.level.FieldOfView;
+import dev.atomix.level.TileGrid;
+
+/**
+ * The entities of one level, kept in an Ashley {@link PooledEngine}. Entities and components come from the engine's
+ * pools and go back to them on removal, and every system walks its family with an index loop, so neither spawning
+ * nor a turn allocates once the pools have warmed up.
+ * <p>
+ * Turn systems only run when {@link #turn(int, int)} is called, and drawing only runs from {@link #render(float)}. One
+ * input therefore moves everything exactly once, however many frames are drawn in between.
+ */
+public class EntityWorld implements Disposable {
+
+    private static final int POOL_SIZE = 256;
+    private static final int MAX_POOLED = 16384;
+
+    private final PooledEngine m_Engine;
+    private final OccupancyGrid m_Occupancy;
+    private final AISystem m_AI;
+    private final MotionSystem m_Motion;
+    private final RenderSystem m_Render;
+
+    private int m_Turns;
+
+    /**
+     * @param wakeRadius how close to the player actors must be to act, see {@link TurnScheduler}
+     * @param batch      the batch entities are drawn with, or null if the world is never rendered
+     */
+    public EntityWorld(TileGrid tiles, DijkstraMap goals, long seed, int wakeRadius, SpriteBatch batch, int tileSize) {
+        m_Engine = new PooledEngine(POOL_SIZE, MAX_POOLED, POOL_SIZE, MAX_POOLED);
+        m_Occupancy = new OccupancyGrid(tiles.getWidth(), tiles.getHeight());
+        m_Engine.addEntityListener(OccupancyGrid.FAMILY, m_Occupancy);
+
+        m_AI = new AISystem(tiles, m_Occupancy, goals, seed, wakeRadius, 0);
+        m_Motion = new MotionSystem(tiles, m_Occupancy, 1);
+        m_Render = new RenderSystem(batch, tileSize, 2);
+
+        m_Engine.addSystem(m_AI);
+        m_Engine.addSystem(m_Motion);
+        m_Engine.addSystem(m_Render);
+        setTurnSystems(false);
+    }
+
+    /** Runs one player turn: every actor that is due near the player acts, and every projectile moves. */
+    public void turn(int playerX, int playerY) {
+        m_AI.setPlayer(playerX, playerY);
+        setTurnSystems(true);
+        m_Render.setProcessing(false);
+
+        m_Engine.update(0.0f);
+
+        setTurnSystems(false);
+        m_Render.setProcessing(true);
+        m_Turns++;
+    }
+
+    /** Draws every visible entity, call it after the map has been drawn. */
+    public void render(float delta) {
+        m_Engine.update(delta);
+    }
+
+    /** @param delay time between two actions, see {@link TurnScheduler#NORMAL_DELAY} */
+    public Entity spawnMonster(int x, int y, TextureRegion region, AIComponent.Behavior behavior, int sight, int delay) {
+        Entity entity = m_Engine.createEntity();
+        addPosition(entity, x, y, region);
+
+        AIComponent ai = m_Engine.createComponent(AIComponent.class);
+        ai.behavior = behavior;
+        ai.sight = sight;
+        ai.delay = delay;
+        entity.add(ai);
+
+        // Added last, so the scheduler sees the finished entity
+        m_Engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Adds the player, which is only drawn: the caller moves it through {@link #move} and passes its tile to
+     * {@link #turn}. Spawn it after the monsters so it is drawn over them.
+     */
+    public Entity spawnPlayer(int x, int y, TextureRegion region) {
+        Entity entity = m_Engine.createEntity();
+        addPosition(entity, x, y, region);
+
+        m_Engine.addEntity(entity);
+        return entity;
+    }
+
+    public Entity spawnItem(int x, int y, TextureRegion region) {
+        Entity entity = m_Engine.createEntity();
+        addPosition(entity, x, y, region);
+
+        m_Engine.addEntity(entity);
+        return entity;
+    }
+
+    public Entity spawnProjectile(int x, int y, int dx, int dy, int range, TextureRegion region) {
+        Entity entity = m_Engine.createEntity();
+        addPosition(entity, x, y, region);
+
+        MotionComponent motion = m_Engine.createComponent(MotionComponent.class);
+        motion.dx = dx;
+        motion.dy = dy;
+        motion.range = range;
+        entity.add(motion);
+
+        m_Engine.addEntity(entity);
+        return entity;
+    }
+
+    /** Returns an entity and its components to the pools. */
+    public void remove(Entity entity) {
+        m_Engine.removeEntity(entity);
+    }
+
+    /** Removes every entity, as when leaving a level. */
+    public void clear() {
+        m_Engine.removeAllEntities();
+    }
+
+    /** Removes every entity and empties the pools, so nothing of the level is held on to once the world is dropped. */
+    @Override
+    public void dispose() {
+        m_Engine.removeAllEntities();
+        m_Engine.clearPools();
+    }
+
+    public void setGoals(DijkstraMap goals) {
+        m_AI.setGoals(goals);
+    }
+
+    public void setFieldOfView(FieldOfView vision) {
+        m_Render.setFieldOfView(vision);
+    }
+
+    public int getEntityCount() {
+        return m_Engine.getEntities().size();
+    }
+
+    /** @return the number of turns run so far */
+    public int getTurns() {
+        return m_Turns;
+    }
+
+    /** Moves an entity to another tile. Positions must only change through here or the occupancy grid. */
+    public void move(Entity entity, int x, int y) {
+        m_Occupancy.move(entity, x, y);
+    }
+
+    /** @return the index of which entities stand on which tile */
+    public OccupancyGrid getOccupancy() {
+        return m_Occupancy;
+    }
+
+    public TurnScheduler getScheduler() {
+        return m_AI.getScheduler();
+    }
+
+    public PooledEngine getEngine() {
+        return m_Engine;
+    }
+
+    private void addPosition(Entity entity, int x, int y, TextureRegion region) {
+        PositionComponent position = m_Engine.createComponent(PositionComponent.class);
+        position.x = x;
+        position.y = y;
+        entity.add(position);
+
+        RenderComponent render = m_Engine.createComponent(RenderComponent.class);
+        render.region = region;
+        entity.add(render);
+    }
+
+    private void setTurnSystems(boolean processing) {
+        m_AI.setProcessing(processing);
+        m_Motion.setProcessing(processing);
+    }
+}
@@ -0,0 +1,14 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.ComponentMapper;
+
+/** Shared component mappers, each a constant-time index into an entity's components. */
+public final class Mappers {
+    public static final ComponentMapper<PositionComponent> POSITION = ComponentMapper.getFor(PositionComponent.class);
+    public static final ComponentMapper<RenderComponent> RENDER = ComponentMapper.getFor(RenderComponent.class);
+    public static final ComponentMapper<AIComponent> AI = ComponentMapper.getFor(AIComponent.class);
+    public static final ComponentMapper<MotionComponent> MOTION = ComponentMapper.getFor(MotionComponent.class);
+
+    private Mappers() {
+    }
+}
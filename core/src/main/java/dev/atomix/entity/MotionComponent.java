@@ -0,0 +1,16 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/** Moves an entity in a straight line every turn, removing it once it hits a wall or runs out of range. */
+public class MotionComponent implements Component, Pool.Poolable {
+    public int dx, dy;
+    public int range;
+
+    @Override
+    public void reset() {
+        dx = dy = 0;
+        range = 0;
+    }
+}
@@ -0,0 +1,35 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import dev.atomix.level.TileGrid;
+
+/** Advances every entity with a {@link MotionComponent} one tile per turn, returning spent ones to the engine's pools. */
+public class MotionSystem extends IteratingSystem {
+
+    private final TileGrid m_Tiles;
+    private final OccupancyGrid m_Occupancy;
+
+    public MotionSystem(TileGrid tiles, OccupancyGrid occupancy, int priority) {
+        super(Family.all(PositionComponent.class, MotionComponent.class).get(), priority);
+        m_Tiles = tiles;
+        m_Occupancy = occupancy;
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        MotionComponent motion = Mappers.MOTION.get(entity);
+
+        int x = position.x + motion.dx, y = position.y + motion.dy;
+        if (motion.range <= 0 || !AISystem.isFloor(m_Tiles, x, y)) {
+            // Removal is deferred until the engine finishes updating, so the iteration stays intact
+            getEngine().removeEntity(entity);
+            return;
+        }
+
+        m_Occupancy.move(entity, x, y);
+        motion.range--;
+    }
+}
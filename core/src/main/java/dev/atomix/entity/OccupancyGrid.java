@@ -0,0 +1,227 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+
+/**
+ * Indexes entities by the tile they stand on, laid out like the level's tiles ({@code x * height + y}). Each tile
+ * holds the head of an intrusive doubly linked list threaded through parallel {@code int[]} arrays, so any number of
+ * entities can stack on a tile, and adding, removing or moving one is constant time with no allocation.
+ * <p>
+ * Entities with a {@link PositionComponent} are indexed automatically once this is registered as a listener for
+ * {@link #FAMILY}. From then on positions must only change through {@link #move}, or the index goes stale.
+ * <p>
+ * Lists can be walked without allocating: {@link #head}, then {@link #next} until {@link #NONE}.
+ */
+public class OccupancyGrid implements EntityListener {
+
+    public static final Family FAMILY = Family.all(PositionComponent.class).get();
+
+    /** Marks the end of a list */
+    public static final int NONE = -1;
+
+    private final int m_Width, m_Height;
+    private final int[] m_Head;
+
+    // Per slot: the list links, the tile it is on and its entity. Free slots are chained through m_Next
+    private int[] m_Next, m_Prev, m_Tile;
+    private Entity[] m_Entities;
+    private int m_Free = NONE, m_Used, m_Count;
+
+    public OccupancyGrid(int width, int height) {
+        m_Width = width;
+        m_Height = height;
+        m_Head = new int[width * height];
+        Arrays.fill(m_Head, NONE);
+
+        m_Next = new int[256];
+        m_Prev = new int[256];
+        m_Tile = new int[256];
+        m_Entities = new Entity[256];
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        add(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        remove(entity);
+    }
+
+    /** Indexes an entity on the tile its position points at. */
+    public void add(Entity entity) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        if (position.slot != NONE) return;
+
+        int slot = allocate();
+        m_Entities[slot] = entity;
+        link(slot, pack(position.x, position.y));
+        position.slot = slot;
+        m_Count++;
+    }
+
+    public void remove(Entity entity) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        int slot = position.slot;
+        if (slot == NONE) return;
+
+        unlink(slot);
+        m_Entities[slot] = null;
+        m_Next[slot] = m_Free;
+        m_Free = slot;
+        position.slot = NONE;
+        m_Count--;
+    }
+
+    /** Moves an entity to another tile, updating its position and the index together. */
+    public void move(Entity entity, int x, int y) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        int slot = position.slot;
+        if (slot != NONE) {
+            int tile = pack(x, y);
+            if (m_Tile[slot] != tile) {
+                unlink(slot);
+                link(slot, tile);
+            }
+        }
+
+        position.x = x;
+        position.y = y;
+    }
+
+    /** @return the first slot on a tile, or {@link #NONE} if nothing is there */
+    public int head(int x, int y) {
+        return m_Head[pack(x, y)];
+    }
+
+    /** @return the slot after this one on the same tile, or {@link #NONE} */
+    public int next(int slot) {
+        return m_Next[slot];
+    }
+
+    public Entity getEntity(int slot) {
+        return m_Entities[slot];
+    }
+
+    public boolean isEmpty(int x, int y) {
+        return m_Head[pack(x, y)] == NONE;
+    }
+
+    /** @return true if any entity on the tile belongs to the family */
+    public boolean contains(int x, int y, Family family) {
+        for (int slot = m_Head[pack(x, y)]; slot != NONE; slot = m_Next[slot])
+            if (family.matches(m_Entities[slot])) return true;
+        return false;
+    }
+
+    /** @return the number of entities on a tile */
+    public int count(int x, int y) {
+        int count = 0;
+        for (int slot = m_Head[pack(x, y)]; slot != NONE; slot = m_Next[slot])
+            count++;
+        return count;
+    }
+
+    /** @return the number of entities in the whole index */
+    public int size() {
+        return m_Count;
+    }
+
+    /**
+     * Adds every entity on a tile to the output.
+     *
+     * @return the number of entities added
+     */
+    public int query(int x, int y, Array<Entity> out) {
+        return queryRect(x, y, x, y, out);
+    }
+
+    /**
+     * Adds every entity inside an inclusive rectangle of tiles to the output. The rectangle is clipped to the grid.
+     *
+     * @return the number of entities added
+     */
+    public int queryRect(int minX, int minY, int maxX, int maxY, Array<Entity> out) {
+        int before = out.size;
+        minX = Math.max(0, minX);
+        minY = Math.max(0, minY);
+        maxX = Math.min(m_Width - 1, maxX);
+        maxY = Math.min(m_Height - 1, maxY);
+
+        for (int x = minX; x <= maxX; ++x) {
+            int column = x * m_Height;
+            for (int y = minY; y <= maxY; ++y)
+                for (int slot = m_Head[column + y]; slot != NONE; slot = m_Next[slot])
+                    out.add(m_Entities[slot]);
+        }
+        return out.size - before;
+    }
+
+    /**
+     * Adds every entity within a circular radius of a tile to the output, using the same circle as the field of view.
+     *
+     * @return the number of entities added
+     */
+    public int queryRadius(int centerX, int centerY, int radius, Array<Entity> out) {
+        int before = out.size;
+        int radiusSquared = radius * radius;
+        int minX = Math.max(0, centerX - radius), maxX = Math.min(m_Width - 1, centerX + radius);
+
+        for (int x = minX; x <= maxX; ++x) {
+            // Only the column's span inside the circle is visited
+            int dx = x - centerX;
+            int span = (int) Math.sqrt(radiusSquared - dx * dx);
+            int minY = Math.max(0, centerY - span), maxY = Math.min(m_Height - 1, centerY + span);
+
+            int column = x * m_Height;
+            for (int y = minY; y <= maxY; ++y)
+                for (int slot = m_Head[column + y]; slot != NONE; slot = m_Next[slot])
+                    out.add(m_Entities[slot]);
+        }
+        return out.size - before;
+    }
+
+    public int pack(int x, int y) {
+        return x * m_Height + y;
+    }
+
+    private int allocate() {
+        if (m_Free != NONE) {
+            int slot = m_Free;
+            m_Free = m_Next[slot];
+            return slot;
+        }
+
+        if (m_Used == m_Next.length) {
+            int capacity = m_Used * 2;
+            m_Next = Arrays.copyOf(m_Next, capacity);
+            m_Prev = Arrays.copyOf(m_Prev, capacity);
+            m_Tile = Arrays.copyOf(m_Tile, capacity);
+            m_Entities = Arrays.copyOf(m_Entities, capacity);
+        }
+        return m_Used++;
+    }
+
+    private void link(int slot, int tile) {
+        int head = m_Head[tile];
+        m_Next[slot] = head;
+        m_Prev[slot] = NONE;
+        if (head != NONE) m_Prev[head] = slot;
+
+        m_Head[tile] = slot;
+        m_Tile[slot] = tile;
+    }
+
+    private void unlink(int slot) {
+        int prev = m_Prev[slot], next = m_Next[slot];
+        if (prev != NONE) m_Next[prev] = next;
+        else m_Head[m_Tile[slot]] = next;
+        if (next != NONE) m_Prev[next] = prev;
+    }
+}
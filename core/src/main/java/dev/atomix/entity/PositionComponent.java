@@ -0,0 +1,18 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.utils.Pool;
+
+/** The tile an entity stands on. Once an entity is in an {@link OccupancyGrid}, move it through the grid. */
+public class PositionComponent implements Component, Pool.Poolable {
+    public int x, y;
+
+    // Where the OccupancyGrid keeps this entity
+    int slot = OccupancyGrid.NONE;
+
+    @Override
+    public void reset() {
+        x = y = 0;
+        slot = OccupancyGrid.NONE;
+    }
+}
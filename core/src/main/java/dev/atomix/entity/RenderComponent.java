@@ -0,0 +1,18 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Pool;
+
+/** How an entity is drawn. The tint is owned by the component, so pooled components never allocate a new one. */
+public class RenderComponent implements Component, Pool.Poolable {
+    public TextureRegion region;
+    public final Color tint = new Color(Color.WHITE);
+
+    @Override
+    public void reset() {
+        region = null;
+        tint.set(Color.WHITE);
+    }
+}
@@ -0,0 +1,45 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.systems.IteratingSystem;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import dev.atomix.level.FieldOfView;
+
+/** Draws every entity with a {@link RenderComponent} in one batch, skipping those outside the field of view. */
+public class RenderSystem extends IteratingSystem {
+
+    private final SpriteBatch m_Batch;
+    private final int m_TileSize;
+    private FieldOfView m_Vision;
+
+    public RenderSystem(SpriteBatch batch, int tileSize, int priority) {
+        super(Family.all(PositionComponent.class, RenderComponent.class).get(), priority);
+        m_Batch = batch;
+        m_TileSize = tileSize;
+    }
+
+    /** @param vision the field entities must be inside to be drawn, or null to draw all of them */
+    public void setFieldOfView(FieldOfView vision) {
+        m_Vision = vision;
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        m_Batch.begin();
+        super.update(deltaTime);
+        m_Batch.setColor(Color.WHITE);
+        m_Batch.end();
+    }
+
+    @Override
+    protected void processEntity(Entity entity, float deltaTime) {
+        PositionComponent position = Mappers.POSITION.get(entity);
+        RenderComponent render = Mappers.RENDER.get(entity);
+        if (render.region == null || (m_Vision != null && !m_Vision.isVisible(position.x, position.y))) return;
+
+        m_Batch.setColor(render.tint);
+        m_Batch.draw(render.region, position.x * m_TileSize, position.y * m_TileSize, m_TileSize, m_TileSize);
+    }
+}
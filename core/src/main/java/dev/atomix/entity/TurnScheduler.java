@@ -0,0 +1,209 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.gdx.utils.Array;
+import dev.atomix.level.TileGrid;
+
+/**
+ * Decides which actors act on each turn. Every actor with an {@link AIComponent} is due at its own point in time and
+ * acts again {@link AIComponent#delay} later, so a monster with twice the delay acts half as often.
+ * <p>
+ * Due times are whole numbers that only ever grow, so the queue is a calendar: a ring of buckets, one per point in
+ * time, and advancing the clock visits just the buckets it passes. Scheduling and running an actor are both constant
+ * time, where a binary heap pays a logarithmic sift for every action. Delays longer than the ring are fine, those
+ * actors are simply passed over until the ring comes around to their time.
+ * <p>
+ * Actors far from the player are not kept in the calendar at all. When one comes due out of range it goes dormant in a
+ * bucket for its chunk, and it is woken only when the player comes close to that chunk. A turn therefore costs the
+ * actors near the player plus the handful of buckets around them, no matter how many actors the level holds.
+ */
+public class TurnScheduler implements EntityListener {
+
+    /** The delay of an actor moving at normal speed, and how far the clock moves on each player turn */
+    public static final int NORMAL_DELAY = 100;
+
+    private static final int RING_SIZE = 1024;
+    private static final int RING_MASK = RING_SIZE - 1;
+
+    // Actors wake within the wake radius but only sleep past it plus this, so they don't flicker on the edge
+    private static final int HYSTERESIS = 8;
+
+    /** Called for every actor whose turn has come. */
+    public interface Action {
+        void act(Entity entity);
+    }
+
+    private final int m_ChunksX, m_ChunksY;
+    private final int m_WakeRadius;
+
+    // Buckets of scheduled actors by due time, followed by buckets of dormant actors by chunk
+    private final Array<Entity>[] m_Buckets;
+    private int m_ActiveCount, m_DormantCount;
+
+    private long m_Time;
+    private int m_Acted;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TurnScheduler(TileGrid tiles, int wakeRadius) {
+        m_ChunksX = tiles.getChunksX();
+        m_ChunksY = tiles.getChunksY();
+        m_WakeRadius = wakeRadius;
+        m_Buckets = new Array[RING_SIZE + m_ChunksX * m_ChunksY];
+    }
+
+    /**
+     * Wakes the dormant actors near the player, then moves the clock forward and runs every actor that is due. Due actors
+     * too far from the player go dormant instead of acting.
+     *
+     * @return the number of actors that acted
+     */
+    public int advance(int time, int playerX, int playerY, Action action) {
+        wake(playerX, playerY);
+        m_Acted = 0;
+
+        int sleepRadius = m_WakeRadius + HYSTERESIS;
+        for (long end = m_Time + time; m_Time < end;) {
+            long now = ++m_Time;
+            Array<Entity> bucket = m_Buckets[(int) (now & RING_MASK)];
+            if (bucket == null) continue;
+
+            for (int i = 0; i < bucket.size;) {
+                Entity entity = bucket.get(i);
+                AIComponent ai = Mappers.AI.get(entity);
+                if (ai.nextAct != now) {
+                    i++; // Due on a later pass of the ring
+                    continue;
+                }
+
+                // Removing swaps the last actor into this slot, so i is not advanced
+                remove(ai);
+
+                PositionComponent position = Mappers.POSITION.get(entity);
+                if (distance(position, playerX, playerY) > sleepRadius) {
+                    add(entity, ai, RING_SIZE + chunkOf(position));
+                    m_ActiveCount--;
+                    m_DormantCount++;
+                    continue;
+                }
+
+                action.act(entity);
+                ai.nextAct = now + ai.delay;
+                add(entity, ai, (int) (ai.nextAct & RING_MASK));
+                m_Acted++;
+            }
+        }
+
+        return m_Acted;
+    }
+
+    /** Starts scheduling an actor, due one delay from now. Done automatically for entities added to the engine. */
+    public void schedule(Entity entity) {
+        AIComponent ai = Mappers.AI.get(entity);
+        if (ai.bucket >= 0) return;
+
+        ai.delay = Math.max(1, ai.delay);
+        ai.nextAct = m_Time + ai.delay;
+        add(entity, ai, (int) (ai.nextAct & RING_MASK));
+        m_ActiveCount++;
+    }
+
+    /** Stops scheduling an actor, whether it is awake or dormant. */
+    public void unschedule(Entity entity) {
+        AIComponent ai = Mappers.AI.get(entity);
+        if (ai.bucket < 0) return;
+
+        if (ai.bucket >= RING_SIZE) m_DormantCount--;
+        else m_ActiveCount--;
+        remove(ai);
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        schedule(entity);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        unschedule(entity);
+    }
+
+    public long getTime() {
+        return m_Time;
+    }
+
+    public int getActiveCount() {
+        return m_ActiveCount;
+    }
+
+    public int getDormantCount() {
+        return m_DormantCount;
+    }
+
+    /** @return the number of actors that acted on the last {@link #advance} */
+    public int getActed() {
+        return m_Acted;
+    }
+
+    // Brings back the dormant actors in range, scanning only the chunks the wake radius overlaps
+    private void wake(int playerX, int playerY) {
+        if (m_DormantCount == 0) return;
+
+        int minCx = Math.max(0, (playerX - m_WakeRadius) >> TileGrid.CHUNK_SHIFT);
+        int minCy = Math.max(0, (playerY - m_WakeRadius) >> TileGrid.CHUNK_SHIFT);
+        int maxCx = Math.min(m_ChunksX - 1, (playerX + m_WakeRadius) >> TileGrid.CHUNK_SHIFT);
+        int maxCy = Math.min(m_ChunksY - 1, (playerY + m_WakeRadius) >> TileGrid.CHUNK_SHIFT);
+
+        for (int cx = minCx; cx <= maxCx; ++cx) {
+            for (int cy = minCy; cy <= maxCy; ++cy) {
+                Array<Entity> bucket = m_Buckets[RING_SIZE + cx * m_ChunksY + cy];
+                if (bucket == null) continue;
+
+                // Backwards, since waking swaps the last actor into the freed slot
+                for (int i = bucket.size - 1; i >= 0; --i) {
+                    Entity entity = bucket.get(i);
+                    if (distance(Mappers.POSITION.get(entity), playerX, playerY) > m_WakeRadius) continue;
+
+                    AIComponent ai = Mappers.AI.get(entity);
+                    remove(ai);
+                    m_DormantCount--;
+                    m_ActiveCount++;
+
+                    // Sleeping turns are skipped, not caught up on
+                    ai.nextAct = m_Time + ai.delay;
+                    add(entity, ai, (int) (ai.nextAct & RING_MASK));
+                }
+            }
+        }
+    }
+
+    private int chunkOf(PositionComponent position) {
+        int cx = Math.max(0, Math.min(m_ChunksX - 1, position.x >> TileGrid.CHUNK_SHIFT));
+        int cy = Math.max(0, Math.min(m_ChunksY - 1, position.y >> TileGrid.CHUNK_SHIFT));
+        return cx * m_ChunksY + cy;
+    }
+
+    private static int distance(PositionComponent position, int x, int y) {
+        return Math.max(Math.abs(position.x - x), Math.abs(position.y - y));
+    }
+
+    private void add(Entity entity, AIComponent ai, int index) {
+        Array<Entity> bucket = m_Buckets[index];
+        if (bucket == null) bucket = m_Buckets[index] = new Array<>(false, 16);
+
+        ai.bucket = index;
+        ai.bucketIndex = bucket.size;
+        bucket.add(entity);
+    }
+
+    private void remove(AIComponent ai) {
+        Array<Entity> bucket = m_Buckets[ai.bucket];
+        Entity last = bucket.pop();
+        if (ai.bucketIndex < bucket.size) {
+            bucket.set(ai.bucketIndex, last);
+            Mappers.AI.get(last).bucketIndex = ai.bucketIndex;
+        }
+
+        ai.bucket = ai.bucketIndex = -1;
+    }
+}
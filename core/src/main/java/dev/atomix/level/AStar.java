@@ -0,0 +1,218 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import dev.atomix.Game;
+import dev.atomix.metrics.Histogram;
+
+import java.util.Arrays;
+
+/**
+ * A reusable A* search over a rectangular tile grid. Nodes are packed as {@code x * height + y} and every piece of
+ * per-search state lives in flat {@code int[]} arrays that are allocated once and reused for every call.
+ */
+public class AStar {
+
+    /** Decides whether a tile can be stepped on during a search. */
+    public interface Passable {
+        boolean isPassable(int x, int y);
+    }
+
+    private static final int CLOSED = -1;
+
+    private static final Histogram EXPANSIONS = Game.METRICS.histogram("astar.expanded");
+
+    private final int m_Width, m_Height;
+
+    private final int[] m_GScore;
+    private final int[] m_FScore;
+    private final int[] m_Parent;
+    private final int[] m_HeapIndex;
+    private final int[] m_Stamp;
+    private final int[] m_Heap;
+
+    private int m_HeapSize;
+    private int m_Search;
+    private int m_Expanded;
+
+    public AStar(int width, int height) {
+        m_Width = width;
+        m_Height = height;
+
+        int size = width * height;
+        m_GScore = new int[size];
+        m_FScore = new int[size];
+        m_Parent = new int[size];
+        m_HeapIndex = new int[size];
+        m_Stamp = new int[size];
+        m_Heap = new int[size];
+    }
+
+    /**
+     * Finds a shortest 4-directional path between two tiles using a Manhattan heuristic.
+     *
+     * @param path cleared and then filled with the packed tiles of the path, from start to goal
+     * @return true if the goal was reached
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, Passable passable, IntArray path) {
+        path.clear();
+        nextSearch();
+
+        int expandedBefore = m_Expanded;
+        int start = pack(startX, startY);
+        int goal = pack(goalX, goalY);
+
+        open(start, -1, 0, heuristic(startX, startY, goalX, goalY));
+
+        while (m_HeapSize > 0) {
+            int current = pop();
+            if (current == goal) {
+                reconstructPath(current, path);
+                EXPANSIONS.record(m_Expanded - expandedBefore);
+                return true;
+            }
+
+            m_Expanded++;
+            int x = current / m_Height;
+            int y = current % m_Height;
+            int g = m_GScore[current] + 1;
+
+            // 4-directional neighbors (left, right, down, up)
+            if (x > 0) relax(x - 1, y, current, g, goalX, goalY, passable);
+            if (x < m_Width - 1) relax(x + 1, y, current, g, goalX, goalY, passable);
+            if (y > 0) relax(x, y - 1, current, g, goalX, goalY, passable);
+            if (y < m_Height - 1) relax(x, y + 1, current, g, goalX, goalY, passable);
+        }
+
+        EXPANSIONS.record(m_Expanded - expandedBefore);
+        return false; // No path found
+    }
+
+    /** @return the number of nodes expanded since the last call to {@link #resetExpanded()} */
+    public int getExpanded() {
+        return m_Expanded;
+    }
+
+    public void resetExpanded() {
+        m_Expanded = 0;
+    }
+
+    public int pack(int x, int y) {
+        return x * m_Height + y;
+    }
+
+    public int unpackX(int node) {
+        return node / m_Height;
+    }
+
+    public int unpackY(int node) {
+        return node % m_Height;
+    }
+
+    private void relax(int x, int y, int parent, int g, int goalX, int goalY, Passable passable) {
+        int node = pack(x, y);
+        if (m_Stamp[node] == m_Search) {
+            if (m_HeapIndex[node] == CLOSED || g >= m_GScore[node]) return;
+
+            // Found a cheaper way to a node that is still open
+            m_GScore[node] = g;
+            m_FScore[node] = g + heuristic(x, y, goalX, goalY);
+            m_Parent[node] = parent;
+            siftUp(m_HeapIndex[node]);
+            return;
+        }
+
+        if (!passable.isPassable(x, y)) return;
+        open(node, parent, g, heuristic(x, y, goalX, goalY));
+    }
+
+    private void open(int node, int parent, int g, int h) {
+        m_Stamp[node] = m_Search;
+        m_GScore[node] = g;
+        m_FScore[node] = g + h;
+        m_Parent[node] = parent;
+
+        m_Heap[m_HeapSize] = node;
+        m_HeapIndex[node] = m_HeapSize;
+        siftUp(m_HeapSize++);
+    }
+
+    private int pop() {
+        int top = m_Heap[0];
+        m_HeapIndex[top] = CLOSED;
+
+        if (--m_HeapSize > 0) {
+            m_Heap[0] = m_Heap[m_HeapSize];
+            m_HeapIndex[m_Heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = m_Heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = m_Heap[parentIndex];
+            if (!before(node, parent)) break;
+
+            m_Heap[index] = parent;
+            m_HeapIndex[parent] = index;
+            index = parentIndex;
+        }
+
+        m_Heap[index] = node;
+        m_HeapIndex[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = m_Heap[index];
+        int half = m_HeapSize >>> 1;
+        while (index < half) {
+            int childIndex = (index << 1) + 1;
+            int child = m_Heap[childIndex];
+
+            int rightIndex = childIndex + 1;
+            if (rightIndex < m_HeapSize && before(m_Heap[rightIndex], child)) {
+                childIndex = rightIndex;
+                child = m_Heap[childIndex];
+            }
+
+            if (!before(child, node)) break;
+
+            m_Heap[index] = child;
+            m_HeapIndex[child] = index;
+            index = childIndex;
+        }
+
+        m_Heap[index] = node;
+        m_HeapIndex[node] = index;
+    }
+
+    // Lower f first; on ties prefer the node furthest along (higher g) so searches head straight for the goal
+    private boolean before(int a, int b) {
+        if (m_FScore[a] != m_FScore[b]) return m_FScore[a] < m_FScore[b];
+        return m_GScore[a] > m_GScore[b];
+    }
+
+    private void reconstructPath(int node, IntArray path) {
+        while (node != -1) {
+            path.add(node);
+            node = m_Parent[node]; // Backtrack to construct the path
+        }
+        path.reverse();
+    }
+
+    private void nextSearch() {
+        m_HeapSize = 0;
+        if (++m_Search == 0) {
+            // The stamp wrapped around, so old stamps could collide with new searches
+            Arrays.fill(m_Stamp, 0);
+            m_Search = 1;
+        }
+    }
+
+    private static int heuristic(int x, int y, int goalX, int goalY) {
+        return Math.abs(x - goalX) + Math.abs(y - goalY);
+    }
+}
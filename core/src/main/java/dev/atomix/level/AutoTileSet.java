@@ -0,0 +1,38 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Maps every possible 8-neighbor mask (see {@link TileGrid#getMask}) to the atlas region that should be drawn for it.
+ * The table has all 256 entries filled up front, so choosing a tile while rendering is a single array read. Masks
+ * without a region of their own use the fallback.
+ */
+public class AutoTileSet {
+
+    /** Picks the region for one mask, called once per mask when the table is built. */
+    public interface Rule {
+        TextureRegion select(int mask);
+    }
+
+    private final TextureRegion[] m_Lookup = new TextureRegion[256];
+    private final TextureRegion m_Fallback;
+
+    public AutoTileSet(TextureRegion fallback) {
+        m_Fallback = fallback;
+    }
+
+    public AutoTileSet(TextureRegion fallback, Rule rule) {
+        this(fallback);
+        for (int mask = 0; mask < m_Lookup.length; ++mask)
+            m_Lookup[mask] = rule.select(mask);
+    }
+
+    public void set(int mask, TextureRegion region) {
+        m_Lookup[mask & 0xFF] = region;
+    }
+
+    public TextureRegion get(int mask) {
+        TextureRegion region = m_Lookup[mask & 0xFF];
+        return region != null ? region : m_Fallback;
+    }
+}
@@ -0,0 +1,80 @@
+package dev.atomix.level;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Runs whole-grid passes in parallel on a {@link ForkJoinPool}, splitting the work along {@link TileGrid.Chunk}
+ * boundaries so no two tasks ever write to the same chunk.
+ * <p>
+ * Cellular rules are double-buffered: every cell of the next generation is computed from the untouched source grid and
+ * written into a separate target grid, so neighbor reads never see a half-applied pass.
+ */
+public class CellularPass {
+
+    /** Computes the next value of a cell, reading only from the previous generation. */
+    public interface Rule {
+        byte apply(TileGrid source, int x, int y);
+    }
+
+    // Below this many chunks a task runs its range directly instead of splitting further
+    private static final int CHUNKS_PER_TASK = 4;
+
+    private final ForkJoinPool m_Pool;
+
+    public CellularPass(ForkJoinPool pool) {
+        m_Pool = pool;
+    }
+
+    /** Runs an action once for every chunk of the grid, spread across the pool. */
+    public void forEachChunk(TileGrid grid, Consumer<TileGrid.Chunk> action) {
+        m_Pool.invoke(new ChunkTask(grid, 0, grid.getChunkCount(), action));
+    }
+
+    /**
+     * Applies a rule to every cell of {@code source}, writing the results into {@code target}. Both grids must be the
+     * same size. Every target chunk is marked dirty and its masks need {@link TileGrid#updateMasks()} again.
+     */
+    public void apply(TileGrid source, TileGrid target, Rule rule) {
+        if (source.getWidth() != target.getWidth() || source.getHeight() != target.getHeight())
+            throw new IllegalArgumentException("Source and target grids must be the same size");
+
+        forEachChunk(target, chunk -> {
+            for (int x = chunk.x; x < chunk.x + chunk.width; ++x) {
+                int column = (x & TileGrid.CHUNK_MASK) << TileGrid.CHUNK_SHIFT;
+                for (int y = chunk.y; y < chunk.y + chunk.height; ++y)
+                    chunk.tiles[column | (y & TileGrid.CHUNK_MASK)] = rule.apply(source, x, y);
+            }
+            chunk.masked = false; // Written behind the grid's back, masks need a full update
+            chunk.markDirty();
+        });
+    }
+
+    // Serializable only through ForkJoinTask, it is never actually serialized
+    @SuppressWarnings("serial")
+    private static class ChunkTask extends RecursiveAction {
+        private final TileGrid m_Grid;
+        private final int m_From, m_To;
+        private final Consumer<TileGrid.Chunk> m_Action;
+
+        ChunkTask(TileGrid grid, int from, int to, Consumer<TileGrid.Chunk> action) {
+            m_Grid = grid;
+            m_From = from;
+            m_To = to;
+            m_Action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (m_To - m_From <= CHUNKS_PER_TASK) {
+                for (int i = m_From; i < m_To; ++i)
+                    m_Action.accept(m_Grid.getChunk(i));
+                return;
+            }
+
+            int mid = (m_From + m_To) >>> 1;
+            invokeAll(new ChunkTask(m_Grid, m_From, mid, m_Action), new ChunkTask(m_Grid, mid, m_To, m_Action));
+        }
+    }
+}
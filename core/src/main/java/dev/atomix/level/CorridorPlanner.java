@@ -0,0 +1,110 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Decides which rooms get a corridor before any corridor is carved. Candidate edges come from each room's nearest
+ * neighbors; a minimum spanning tree over them (Kruskal, by Manhattan distance between centers) keeps the level
+ * connected with the least total corridor length, and a fraction of the remaining candidates is added back for loops.
+ * The number of planned corridors is therefore O(rooms) rather than O(rooms²).
+ */
+class CorridorPlanner {
+
+    // Edges are packed into a long as weight | a | b so a plain sort orders them by length, then by ids
+    private static final int ID_BITS = 20;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private final int m_Neighbors;
+    private final float m_ExtraFraction;
+
+    /**
+     * @param neighbors how many nearest rooms each room considers as corridor candidates
+     * @param extraFraction the fraction of non-tree candidates that are carved anyway, adding loops
+     */
+    CorridorPlanner(int neighbors, float extraFraction) {
+        m_Neighbors = neighbors;
+        m_ExtraFraction = extraFraction;
+    }
+
+    /**
+     * Plans corridors between rooms. The candidate graph may not reach every room; callers are expected to link any
+     * rooms left disconnected themselves.
+     *
+     * @return room id pairs to connect, flattened as {@code a0, b0, a1, b1, ...}
+     */
+    IntArray plan(List<Room> rooms, RoomIndex index, SplittableRandom random) {
+        if (rooms.size() > (1 << ID_BITS)) throw new IllegalArgumentException("Too many rooms to plan: " + rooms.size());
+
+        long[] edges = candidateEdges(rooms, index);
+        IntArray planned = new IntArray();
+        long[] rejected = new long[edges.length];
+        int rejectedCount = 0;
+
+        // Kruskal: the shortest edge joining two separate components is always part of the tree
+        DisjointSet components = new DisjointSet(rooms.size());
+        for (long edge : edges) {
+            int a = (int) ((edge >>> ID_BITS) & ID_MASK);
+            int b = (int) (edge & ID_MASK);
+
+            if (components.union(a, b)) planned.add(a, b);
+            else rejected[rejectedCount++] = edge;
+        }
+
+        // Pick the extra edges with a partial shuffle, so the choice only depends on the random stream
+        int extras = Math.round(rejectedCount * m_ExtraFraction);
+        for (int i = 0; i < extras; ++i) {
+            int pick = i + random.nextInt(rejectedCount - i);
+            long edge = rejected[pick];
+            rejected[pick] = rejected[i];
+            rejected[i] = edge;
+
+            planned.add((int) ((edge >>> ID_BITS) & ID_MASK), (int) (edge & ID_MASK));
+        }
+
+        return planned;
+    }
+
+    private long[] candidateEdges(List<Room> rooms, RoomIndex index) {
+        long[] edges = new long[rooms.size() * m_Neighbors];
+        int count = 0;
+
+        Room[] found = new Room[m_Neighbors];
+        for (Room room : rooms) {
+            int foundCount = 0;
+            while (foundCount < m_Neighbors) {
+                int taken = foundCount;
+                Room neighbor = index.nearest(room.centerX(), room.centerY(), other -> other != room && !contains(found, taken, other));
+                if (neighbor == null) break;
+
+                found[foundCount++] = neighbor;
+                edges[count++] = pack(room, neighbor);
+            }
+        }
+
+        // Each pair is usually found from both ends, drop the duplicates once sorted
+        edges = Arrays.copyOf(edges, count);
+        Arrays.sort(edges);
+
+        int unique = 0;
+        for (int i = 0; i < edges.length; ++i)
+            if (i == 0 || edges[i] != edges[i - 1]) edges[unique++] = edges[i];
+
+        return Arrays.copyOf(edges, unique);
+    }
+
+    private static long pack(Room a, Room b) {
+        long weight = Math.abs(a.centerX() - b.centerX()) + Math.abs(a.centerY() - b.centerY());
+        long low = Math.min(a.id, b.id), high = Math.max(a.id, b.id);
+        return (weight << (ID_BITS * 2)) | (low << ID_BITS) | high;
+    }
+
+    private static boolean contains(Room[] rooms, int count, Room room) {
+        for (int i = 0; i < count; ++i)
+            if (rooms[i] == room) return true;
+        return false;
+    }
+}
@@ -0,0 +1,274 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * A distance field over the floor tiles of a level: every tile holds its 4-directional step count to the nearest goal.
+ * Any number of agents can then chase the goals by stepping to their lowest neighbor, an O(1) lookup per agent instead
+ * of one search each. Nodes are packed as {@code x * height + y}, like {@link AStar}.
+ * <p>
+ * Fields are built with a single multi-goal breadth-first search. Adding a goal only lowers distances around it.
+ * Removing one first clears the tiles whose distance came from that goal, level by level, and then refills only those
+ * from the untouched tiles bordering them. A moved goal therefore costs roughly the area it used to be closest to,
+ * not the whole level.
+ * <p>
+ * Walkability is read from the grid on {@link #rebuild()}; call it again after tiles change.
+ */
+public class DijkstraMap {
+
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final TileGrid m_Tiles;
+    private final int m_Width, m_Height;
+
+    private final int[] m_Distance;
+    private final boolean[] m_Walkable;
+    private final IntArray m_Goals;
+
+    // Scratch state reused by every update
+    private final int[] m_Queue;
+    private final int[] m_Stamp;
+    private final IntArray m_Cleared;
+    private long[] m_Border;
+    private int m_Pass;
+
+    public DijkstraMap(TileGrid tiles) {
+        m_Tiles = tiles;
+        m_Width = tiles.getWidth();
+        m_Height = tiles.getHeight();
+
+        int size = m_Width * m_Height;
+        m_Distance = new int[size];
+        m_Walkable = new boolean[size];
+        m_Goals = new IntArray();
+        m_Queue = new int[size];
+        m_Stamp = new int[size];
+        m_Cleared = new IntArray();
+        m_Border = new long[64];
+
+        rebuild();
+    }
+
+    /** Re-reads which tiles are walkable and recomputes the whole field from the current goals. */
+    public void rebuild() {
+        for (int x = 0; x < m_Width; ++x)
+            for (int y = 0; y < m_Height; ++y)
+                m_Walkable[pack(x, y)] = m_Tiles.get(x, y) == Map.TileType.FLOOR;
+
+        Arrays.fill(m_Distance, UNREACHABLE);
+
+        int tail = 0;
+        for (int i = 0; i < m_Goals.size; ++i) {
+            int goal = m_Goals.get(i);
+            if (!m_Walkable[goal] || m_Distance[goal] == 0) continue; // On a wall, or two goals on one tile
+
+            m_Distance[goal] = 0;
+            m_Queue[tail++] = goal;
+        }
+        flood(0, tail);
+    }
+
+    /** Replaces every goal with a single one. */
+    public void setGoal(int x, int y) {
+        m_Goals.clear();
+        m_Goals.add(pack(x, y));
+        rebuild();
+    }
+
+    public void clearGoals() {
+        m_Goals.clear();
+        Arrays.fill(m_Distance, UNREACHABLE);
+    }
+
+    /** Adds a goal, lowering the distances it is now closest to. Goals on walls are kept but reach nothing. */
+    public void addGoal(int x, int y) {
+        int goal = pack(x, y);
+        m_Goals.add(goal);
+        if (!m_Walkable[goal] || m_Distance[goal] == 0) return;
+
+        m_Distance[goal] = 0;
+        m_Queue[0] = goal;
+        flood(0, 1);
+    }
+
+    /**
+     * Removes one goal on the given tile. Only the tiles that were closest to it are recomputed.
+     *
+     * @return false if there was no goal on the tile
+     */
+    public boolean removeGoal(int x, int y) {
+        int goal = pack(x, y);
+        if (!m_Goals.removeValue(goal)) return false;
+        if (m_Goals.contains(goal) || m_Distance[goal] != 0) return true; // Still a goal, or it never reached anything
+
+        invalidate(goal);
+        repair();
+        return true;
+    }
+
+    /** Moves a goal, as when the player takes a step. */
+    public void moveGoal(int fromX, int fromY, int toX, int toY) {
+        addGoal(toX, toY);
+        removeGoal(fromX, fromY);
+    }
+
+    public int getGoalCount() {
+        return m_Goals.size;
+    }
+
+    /** @return the number of steps from the tile to the nearest goal, or {@link #UNREACHABLE} */
+    public int getDistance(int x, int y) {
+        return m_Distance[pack(x, y)];
+    }
+
+    /**
+     * Finds the step an agent on the given tile should take to get closer to a goal. Ties go to the first neighbor in
+     * left, right, down, up order.
+     *
+     * @return the packed neighbor to move to, or -1 if the tile is a goal or no goal can be reached from it
+     */
+    public int next(int x, int y) {
+        int best = -1;
+        int bestDistance = m_Distance[pack(x, y)];
+
+        if (x > 0 && m_Distance[pack(x - 1, y)] < bestDistance) bestDistance = m_Distance[best = pack(x - 1, y)];
+        if (x < m_Width - 1 && m_Distance[pack(x + 1, y)] < bestDistance) bestDistance = m_Distance[best = pack(x + 1, y)];
+        if (y > 0 && m_Distance[pack(x, y - 1)] < bestDistance) bestDistance = m_Distance[best = pack(x, y - 1)];
+        if (y < m_Height - 1 && m_Distance[pack(x, y + 1)] < bestDistance) best = pack(x, y + 1);
+
+        return best;
+    }
+
+    public int pack(int x, int y) {
+        return x * m_Height + y;
+    }
+
+    public int unpackX(int node) {
+        return node / m_Height;
+    }
+
+    public int unpackY(int node) {
+        return node % m_Height;
+    }
+
+    // Breadth-first from the queued tiles, only ever lowering distances
+    private void flood(int head, int tail) {
+        while (head < tail) {
+            int current = m_Queue[head++];
+            int x = current / m_Height;
+            int y = current % m_Height;
+            int distance = m_Distance[current] + 1;
+
+            if (x > 0) tail = lower(current - m_Height, distance, tail);
+            if (x < m_Width - 1) tail = lower(current + m_Height, distance, tail);
+            if (y > 0) tail = lower(current - 1, distance, tail);
+            if (y < m_Height - 1) tail = lower(current + 1, distance, tail);
+        }
+    }
+
+    private int lower(int node, int distance, int tail) {
+        if (!m_Walkable[node] || m_Distance[node] <= distance) return tail;
+
+        m_Distance[node] = distance;
+        m_Queue[tail++] = node;
+        return tail;
+    }
+
+    /*
+     * Clears every tile whose distance depended on the removed goal. Walking outward in distance order, a tile loses its
+     * distance once none of its neighbors still holds distance - 1: by then every tile one step closer has already been
+     * decided, so a surviving neighbor means another goal is just as close.
+     */
+    private void invalidate(int goal) {
+        m_Pass++;
+        m_Cleared.clear();
+
+        int head = 0, tail = 0;
+        m_Stamp[goal] = m_Pass;
+        m_Queue[tail++] = goal;
+
+        while (head < tail) {
+            int current = m_Queue[head++];
+            int distance = m_Distance[current];
+            if (distance != 0 && hasNeighborAt(current, distance - 1)) continue;
+
+            m_Distance[current] = UNREACHABLE;
+            m_Cleared.add(current);
+
+            int x = current / m_Height;
+            int y = current % m_Height;
+            if (x > 0) tail = enqueueAt(current - m_Height, distance + 1, tail);
+            if (x < m_Width - 1) tail = enqueueAt(current + m_Height, distance + 1, tail);
+            if (y > 0) tail = enqueueAt(current - 1, distance + 1, tail);
+            if (y < m_Height - 1) tail = enqueueAt(current + 1, distance + 1, tail);
+        }
+    }
+
+    private int enqueueAt(int node, int distance, int tail) {
+        if (m_Distance[node] != distance || m_Stamp[node] == m_Pass) return tail;
+
+        m_Stamp[node] = m_Pass;
+        m_Queue[tail++] = node;
+        return tail;
+    }
+
+    private boolean hasNeighborAt(int node, int distance) {
+        int x = node / m_Height;
+        int y = node % m_Height;
+        return (x > 0 && m_Distance[node - m_Height] == distance)
+            || (x < m_Width - 1 && m_Distance[node + m_Height] == distance)
+            || (y > 0 && m_Distance[node - 1] == distance)
+            || (y < m_Height - 1 && m_Distance[node + 1] == distance);
+    }
+
+    /*
+     * Refills the cleared tiles from the reachable tiles bordering them. The border starts at mixed distances, so it is
+     * sorted and merged into the breadth-first queue as the queue's front catches up with each border distance.
+     */
+    private void repair() {
+        m_Pass++;
+        int borderCount = 0;
+
+        for (int i = 0; i < m_Cleared.size; ++i) {
+            int current = m_Cleared.get(i);
+            int x = current / m_Height;
+            int y = current % m_Height;
+            if (x > 0) borderCount = addBorder(current - m_Height, borderCount);
+            if (x < m_Width - 1) borderCount = addBorder(current + m_Height, borderCount);
+            if (y > 0) borderCount = addBorder(current - 1, borderCount);
+            if (y < m_Height - 1) borderCount = addBorder(current + 1, borderCount);
+        }
+        Arrays.sort(m_Border, 0, borderCount);
+
+        int head = 0, tail = 0, next = 0;
+        while (head < tail || next < borderCount) {
+            int current;
+            if (next < borderCount && (head == tail || (int) (m_Border[next] >>> 32) <= m_Distance[m_Queue[head]])) {
+                current = (int) m_Border[next++];
+                if (m_Distance[current] != (int) (m_Border[next - 1] >>> 32)) continue; // Lowered since it was added
+            } else {
+                current = m_Queue[head++];
+            }
+
+            int x = current / m_Height;
+            int y = current % m_Height;
+            int distance = m_Distance[current] + 1;
+            if (x > 0) tail = lower(current - m_Height, distance, tail);
+            if (x < m_Width - 1) tail = lower(current + m_Height, distance, tail);
+            if (y > 0) tail = lower(current - 1, distance, tail);
+            if (y < m_Height - 1) tail = lower(current + 1, distance, tail);
+        }
+    }
+
+    private int addBorder(int node, int count) {
+        int distance = m_Distance[node];
+        if (distance == UNREACHABLE || m_Stamp[node] == m_Pass) return count;
+
+        m_Stamp[node] = m_Pass;
+        if (count == m_Border.length) m_Border = Arrays.copyOf(m_Border, count * 2);
+        m_Border[count] = ((long) distance << 32) | node;
+        return count + 1;
+    }
+}
@@ -0,0 +1,61 @@
+package dev.atomix.level;
+
+/**
+ * A union-find structure over the ids {@code 0..size-1}, using path halving and union by rank so every operation runs
+ * in near constant time.
+ */
+public class DisjointSet {
+
+    private final int[] m_Parent;
+    private final byte[] m_Rank;
+    private int m_Count;
+
+    public DisjointSet(int size) {
+        m_Parent = new int[size];
+        m_Rank = new byte[size];
+        m_Count = size;
+
+        for (int i = 0; i < size; ++i)
+            m_Parent[i] = i;
+    }
+
+    public int find(int id) {
+        while (m_Parent[id] != id) {
+            m_Parent[id] = m_Parent[m_Parent[id]]; // Path halving
+            id = m_Parent[id];
+        }
+        return id;
+    }
+
+    /** @return true if the two ids were in different sets before this call */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) return false;
+
+        if (m_Rank[rootA] < m_Rank[rootB]) {
+            m_Parent[rootA] = rootB;
+        } else if (m_Rank[rootA] > m_Rank[rootB]) {
+            m_Parent[rootB] = rootA;
+        } else {
+            m_Parent[rootB] = rootA;
+            m_Rank[rootA]++;
+        }
+
+        m_Count--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /** @return the number of disjoint sets left */
+    public int count() {
+        return m_Count;
+    }
+
+    public int size() {
+        return m_Parent.length;
+    }
+}
@@ -0,0 +1,170 @@
+package dev.atomix.level;
+
+import java.util.Arrays;
+
+/**
+ * Symmetric shadowcasting field of view over a {@link TileGrid}, where walls block sight. A floor tile sees another
+ * exactly when the other sees it back, so what the player sees matches what can see the player. Visible and explored
+ * tiles are kept in two {@code long[]} bitsets indexed like {@link AStar} nodes ({@code x * height + y}), allocated
+ * once and reused by every {@link #compute} call.
+ * <p>
+ * Only the area around the viewer is touched: the previous field is cleared by its bounding box, and only the chunks
+ * under the old and new field are marked dirty so the renderer rebakes just those.
+ */
+public class FieldOfView {
+
+    // Quadrant transforms, north, east, south and west: a tile at (depth, column) is at x = col * cx + depth * dx and
+    // y = col * cy + depth * dy from the origin
+    private static final int[][] QUADRANTS = {
+        { 1, 0, 0, 1 }, { 0, 1, 1, 0 }, { 1, 0, 0, -1 }, { 0, -1, 1, 0 },
+    };
+
+    private final TileGrid m_Tiles;
+    private final int m_Width, m_Height;
+
+    private final long[] m_Visible;
+    private final long[] m_Explored;
+
+    // Bounds of the last computed field, empty when min > max
+    private int m_MinX, m_MinY, m_MaxX = -1, m_MaxY = -1;
+
+    // Current origin and radius, kept in fields so the recursion doesn't have to pass them along
+    private int m_OriginX, m_OriginY, m_Radius;
+
+    public FieldOfView(TileGrid tiles) {
+        m_Tiles = tiles;
+        m_Width = tiles.getWidth();
+        m_Height = tiles.getHeight();
+
+        int words = (m_Width * m_Height + 63) >>> 6;
+        m_Visible = new long[words];
+        m_Explored = new long[words];
+    }
+
+    /** Starts out with the tiles of an earlier field already explored, as stored by {@link LevelSnapshot}. */
+    FieldOfView(TileGrid tiles, long[] explored) {
+        this(tiles);
+        System.arraycopy(explored, 0, m_Explored, 0, m_Explored.length);
+    }
+
+    /** Recomputes what can be seen from a tile within a circular radius, adding it to the explored tiles. */
+    public void compute(int originX, int originY, int radius) {
+        int oldMinX = m_MinX, oldMinY = m_MinY, oldMaxX = m_MaxX, oldMaxY = m_MaxY;
+        for (int x = m_MinX; x <= m_MaxX; ++x)
+            clearRange(m_Visible, pack(x, m_MinY), pack(x, m_MaxY));
+
+        m_OriginX = originX;
+        m_OriginY = originY;
+        m_Radius = radius;
+        m_MinX = Math.max(0, originX - radius);
+        m_MinY = Math.max(0, originY - radius);
+        m_MaxX = Math.min(m_Width - 1, originX + radius);
+        m_MaxY = Math.min(m_Height - 1, originY + radius);
+
+        if (inBounds(originX, originY)) {
+            reveal(originX, originY);
+            for (int[] quadrant : QUADRANTS)
+                scan(quadrant, 1, -1, 1, 1, 1);
+        }
+
+        markDirty(oldMinX, oldMinY, oldMaxX, oldMaxY);
+        markDirty(m_MinX, m_MinY, m_MaxX, m_MaxY);
+    }
+
+    /** Forgets everything seen and explored. */
+    public void reset() {
+        Arrays.fill(m_Visible, 0L);
+        Arrays.fill(m_Explored, 0L);
+        m_Tiles.markAllDirty();
+        m_MaxX = m_MaxY = -1;
+        m_MinX = m_MinY = 0;
+    }
+
+    public boolean isVisible(int x, int y) {
+        int bit = pack(x, y);
+        return (m_Visible[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public boolean isExplored(int x, int y) {
+        int bit = pack(x, y);
+        return (m_Explored[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /** @return the explored bitset itself, not a copy */
+    long[] getExploredBits() {
+        return m_Explored;
+    }
+
+    public int pack(int x, int y) {
+        return x * m_Height + y;
+    }
+
+    /*
+     * Scans one row of a quadrant between two slopes, kept as exact fractions so the symmetry test never rounds. A wall
+     * ending a run of floor starts a narrower scan of the next row, and floor after a wall moves the start slope past
+     * it. Floor tiles are only revealed if their centre lies inside the slopes, which is what makes the result
+     * symmetric; walls are revealed whenever any part of them is lit.
+     */
+    private void scan(int[] quadrant, int depth, int startNum, int startDen, int endNum, int endDen) {
+        if (depth > m_Radius) return;
+
+        int radiusSquared = m_Radius * m_Radius;
+        int minCol = Math.floorDiv(2 * depth * startNum + startDen, 2 * startDen); // depth * start, rounded half up
+        int maxCol = -Math.floorDiv(endDen - 2 * depth * endNum, 2 * endDen); // depth * end, rounded half down
+
+        int previous = -1; // 0 floor, 1 wall, -1 none yet
+        for (int col = minCol; col <= maxCol; ++col) {
+            int x = m_OriginX + col * quadrant[0] + depth * quadrant[1];
+            int y = m_OriginY + col * quadrant[2] + depth * quadrant[3];
+            boolean inside = inBounds(x, y);
+            boolean wall = !inside || m_Tiles.getId(x, y) == Map.TileType.WALL.ordinal();
+
+            boolean symmetric = col * startDen >= depth * startNum && col * endDen <= depth * endNum;
+            if (inside && (wall || symmetric) && col * col + depth * depth <= radiusSquared) reveal(x, y);
+
+            if (previous == 1 && !wall) {
+                startNum = 2 * col - 1;
+                startDen = 2 * depth;
+            }
+            if (previous == 0 && wall) scan(quadrant, depth + 1, startNum, startDen, 2 * col - 1, 2 * depth);
+            previous = wall ? 1 : 0;
+        }
+
+        if (previous == 0) scan(quadrant, depth + 1, startNum, startDen, endNum, endDen);
+    }
+
+    private void reveal(int x, int y) {
+        int bit = pack(x, y);
+        long mask = 1L << bit;
+        m_Visible[bit >>> 6] |= mask;
+        m_Explored[bit >>> 6] |= mask;
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < m_Width && y < m_Height;
+    }
+
+    private void markDirty(int minX, int minY, int maxX, int maxY) {
+        if (minX > maxX || minY > maxY) return;
+
+        for (int cx = minX >> TileGrid.CHUNK_SHIFT; cx <= maxX >> TileGrid.CHUNK_SHIFT; ++cx)
+            for (int cy = minY >> TileGrid.CHUNK_SHIFT; cy <= maxY >> TileGrid.CHUNK_SHIFT; ++cy)
+                m_Tiles.getChunk(cx, cy).markDirty();
+    }
+
+    // Clears bits from..to inclusive
+    private static void clearRange(long[] bits, int from, int to) {
+        int first = from >>> 6, last = to >>> 6;
+        long firstMask = -1L << from, lastMask = -1L >>> (63 - (to & 63));
+
+        if (first == last) {
+            bits[first] &= ~(firstMask & lastMask);
+            return;
+        }
+
+        bits[first] &= ~firstMask;
+        for (int i = first + 1; i < last; ++i)
+            bits[i] = 0L;
+        bits[last] &= ~lastMask;
+    }
+}
@@ -0,0 +1,432 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Hierarchical pathfinding (HPA*) for long queries across large levels. The level is split into clusters, one per
+ * {@link TileGrid.Chunk}. Wherever two neighboring clusters share an open stretch of border, an entrance is placed on it,
+ * giving one abstract node on each side. Within a cluster every pair of abstract nodes is linked by its shortest local
+ * path, computed once and cached.
+ * <p>
+ * A query links the start and goal to the abstract nodes of their own clusters, searches the small abstract graph, and
+ * then stitches the cached paths of the chosen edges together. Long queries expand a few dozen abstract nodes instead
+ * of thousands of tiles. Paths are optimal over the abstract graph, which is usually within a few percent of the true
+ * shortest path. Nodes are packed as {@code x * height + y}, like {@link AStar}.
+ * <p>
+ * The abstract graph is built from the tiles once; call {@link #rebuild()} after tiles change.
+ */
+public class HierarchicalPathfinder {
+
+    // Entrances at least this wide get a transition at each end instead of one in the middle
+    private static final int WIDE_ENTRANCE = 6;
+
+    private static final class Edge {
+        final int to, cost;
+        final int[] path; // Tiles after the source, up to and including the target
+
+        Edge(int to, int cost, int[] path) {
+            this.to = to;
+            this.cost = cost;
+            this.path = path;
+        }
+    }
+
+    private final TileGrid m_Tiles;
+    private final int m_Width, m_Height;
+    private final AStar.Passable m_Passable;
+
+    // Abstract graph
+    private final IntArray m_NodeTiles = new IntArray();
+    private final IntArray m_NodeClusters = new IntArray();
+    private final ArrayList<ArrayList<Edge>> m_Edges = new ArrayList<>();
+    private final IntIntMap m_NodeAt = new IntIntMap();
+    private final IntArray[] m_ClusterNodes;
+
+    // Per-query state, indexed by abstract node with the start and goal appended at the end
+    private int[] m_GScore = new int[0], m_Parent = new int[0], m_Stamp = new int[0];
+    private boolean[] m_Closed = new boolean[0];
+    private Edge[] m_Via = new Edge[0];
+    private long[] m_Heap = new long[64];
+    private int m_HeapSize;
+    private int m_Search;
+    private int m_Expanded;
+
+    private final ClusterSearch m_Local = new ClusterSearch();
+    private final ClusterSearch m_StartSearch = new ClusterSearch();
+    private final ClusterSearch m_GoalSearch = new ClusterSearch();
+    private final IntArray m_Chain = new IntArray();
+
+    public HierarchicalPathfinder(TileGrid tiles, AStar.Passable passable) {
+        m_Tiles = tiles;
+        m_Width = tiles.getWidth();
+        m_Height = tiles.getHeight();
+        m_Passable = passable;
+        m_ClusterNodes = new IntArray[tiles.getChunkCount()];
+        for (int i = 0; i < m_ClusterNodes.length; ++i)
+            m_ClusterNodes[i] = new IntArray(8);
+
+        rebuild();
+    }
+
+    /** Rebuilds the whole abstract graph from the current tiles. */
+    public void rebuild() {
+        m_NodeTiles.clear();
+        m_NodeClusters.clear();
+        m_Edges.clear();
+        m_NodeAt.clear();
+        for (IntArray nodes : m_ClusterNodes)
+            nodes.clear();
+
+        // Entrances on the right and top border of every cluster
+        for (TileGrid.Chunk chunk : m_Tiles) {
+            if (chunk.cx + 1 < m_Tiles.getChunksX()) {
+                int x = chunk.x + chunk.width - 1;
+                int from = -1;
+                for (int y = chunk.y; y <= chunk.y + chunk.height; ++y) {
+                    boolean open = y < chunk.y + chunk.height && m_Passable.isPassable(x, y) && m_Passable.isPassable(x + 1, y);
+                    if (open && from == -1) from = y;
+                    else if (!open && from != -1) {
+                        addEntrances(x, from, x, y - 1, 1, 0);
+                        from = -1;
+                    }
+                }
+            }
+
+            if (chunk.cy + 1 < m_Tiles.getChunksY()) {
+                int y = chunk.y + chunk.height - 1;
+                int from = -1;
+                for (int x = chunk.x; x <= chunk.x + chunk.width; ++x) {
+                    boolean open = x < chunk.x + chunk.width && m_Passable.isPassable(x, y) && m_Passable.isPassable(x, y + 1);
+                    if (open && from == -1) from = x;
+                    else if (!open && from != -1) {
+                        addEntrances(from, y, x - 1, y, 0, 1);
+                        from = -1;
+                    }
+                }
+            }
+        }
+
+        // Cache the shortest local path between every pair of nodes in a cluster
+        for (int cluster = 0; cluster < m_ClusterNodes.length; ++cluster) {
+            IntArray nodes = m_ClusterNodes[cluster];
+            for (int i = 0; i < nodes.size; ++i) {
+                int source = nodes.get(i);
+                int tile = m_NodeTiles.get(source);
+                m_Local.run(cluster, tile / m_Height, tile % m_Height);
+
+                for (int j = 0; j < nodes.size; ++j) {
+                    int target = nodes.get(j);
+                    int other = m_NodeTiles.get(target);
+                    int cost = m_Local.distance(other / m_Height, other % m_Height);
+                    if (target != source && cost > 0) m_Edges.get(source).add(new Edge(target, cost, m_Local.pathTo(other / m_Height, other % m_Height)));
+                }
+            }
+        }
+
+        int size = m_NodeTiles.size + 2;
+        m_GScore = new int[size];
+        m_Parent = new int[size];
+        m_Stamp = new int[size];
+        m_Closed = new boolean[size];
+        m_Via = new Edge[size];
+        m_Search = 0;
+    }
+
+    /**
+     * Finds a 4-directional path between two tiles through the abstract graph.
+     *
+     * @param path cleared and then filled with the packed tiles of the path, from start to goal
+     * @return true if the goal was reached
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray path) {
+        path.clear();
+        if (startX == goalX && startY == goalY) {
+            path.add(pack(startX, startY));
+            return true;
+        }
+
+        int start = m_NodeTiles.size, goal = start + 1;
+        int startCluster = clusterOf(startX, startY), goalCluster = clusterOf(goalX, goalY);
+        m_StartSearch.run(startCluster, startX, startY);
+        m_GoalSearch.run(goalCluster, goalX, goalY);
+
+        nextSearch();
+        visit(start, -1, null, 0, goalX, goalY);
+
+        while (m_HeapSize > 0) {
+            long top = pop();
+            int node = (int) top;
+            if (m_Closed[node] || (int) (top >>> 32) != m_GScore[node] + heuristic(node, goalX, goalY)) continue; // Stale entry
+            m_Closed[node] = true;
+
+            if (node == goal) {
+                refine(startX, startY, path);
+                return true;
+            }
+
+            m_Expanded++;
+            int g = m_GScore[node];
+
+            if (node == start) {
+                // Link the start to its cluster, or straight to the goal if it is reachable locally
+                IntArray nodes = m_ClusterNodes[startCluster];
+                for (int i = 0; i < nodes.size; ++i) {
+                    int tile = m_NodeTiles.get(nodes.get(i));
+                    int cost = m_StartSearch.distance(tile / m_Height, tile % m_Height);
+                    if (cost >= 0) visit(nodes.get(i), start, null, cost, goalX, goalY);
+                }
+
+                int direct = startCluster == goalCluster ? m_StartSearch.distance(goalX, goalY) : -1;
+                if (direct >= 0) visit(goal, start, null, direct, goalX, goalY);
+                continue;
+            }
+
+            ArrayList<Edge> edges = m_Edges.get(node);
+            for (int i = 0; i < edges.size(); ++i) {
+                Edge edge = edges.get(i);
+                visit(edge.to, node, edge, g + edge.cost, goalX, goalY);
+            }
+
+            if (m_NodeClusters.get(node) == goalCluster) {
+                int tile = m_NodeTiles.get(node);
+                int cost = m_GoalSearch.distance(tile / m_Height, tile % m_Height);
+                if (cost >= 0) visit(goal, node, null, g + cost, goalX, goalY);
+            }
+        }
+
+        return false; // No path found
+    }
+
+    /** @return the number of abstract nodes expanded since the last call to {@link #resetExpanded()} */
+    public int getExpanded() {
+        return m_Expanded;
+    }
+
+    public void resetExpanded() {
+        m_Expanded = 0;
+    }
+
+    /** @return the number of abstract nodes, not counting the start and goal a query adds */
+    public int getNodeCount() {
+        return m_NodeTiles.size;
+    }
+
+    public int pack(int x, int y) {
+        return x * m_Height + y;
+    }
+
+    public int unpackX(int node) {
+        return node / m_Height;
+    }
+
+    public int unpackY(int node) {
+        return node % m_Height;
+    }
+
+    // Adds transitions on an open border stretch from (x0, y0) to (x1, y1), crossing by (dx, dy)
+    private void addEntrances(int x0, int y0, int x1, int y1, int dx, int dy) {
+        int length = Math.max(x1 - x0, y1 - y0) + 1;
+        if (length >= WIDE_ENTRANCE) {
+            addTransition(x0, y0, dx, dy);
+            addTransition(x1, y1, dx, dy);
+        } else {
+            addTransition((x0 + x1) / 2, (y0 + y1) / 2, dx, dy);
+        }
+    }
+
+    private void addTransition(int x, int y, int dx, int dy) {
+        int a = nodeAt(x, y), b = nodeAt(x + dx, y + dy);
+        m_Edges.get(a).add(new Edge(b, 1, new int[] { pack(x + dx, y + dy) }));
+        m_Edges.get(b).add(new Edge(a, 1, new int[] { pack(x, y) }));
+    }
+
+    private int nodeAt(int x, int y) {
+        int tile = pack(x, y);
+        int node = m_NodeAt.get(tile, -1);
+        if (node != -1) return node;
+
+        node = m_NodeTiles.size;
+        int cluster = clusterOf(x, y);
+        m_NodeTiles.add(tile);
+        m_NodeClusters.add(cluster);
+        m_Edges.add(new ArrayList<>(4));
+        m_NodeAt.put(tile, node);
+        m_ClusterNodes[cluster].add(node);
+        return node;
+    }
+
+    private int clusterOf(int x, int y) {
+        return m_Tiles.getChunk(x >> TileGrid.CHUNK_SHIFT, y >> TileGrid.CHUNK_SHIFT).index;
+    }
+
+    private int heuristic(int node, int goalX, int goalY) {
+        if (node >= m_NodeTiles.size) return 0; // The start is only ever popped first, the goal has no distance left
+        int tile = m_NodeTiles.get(node);
+        return Math.abs(tile / m_Height - goalX) + Math.abs(tile % m_Height - goalY);
+    }
+
+    private void visit(int node, int parent, Edge via, int g, int goalX, int goalY) {
+        if (m_Stamp[node] == m_Search && (m_Closed[node] || g >= m_GScore[node])) return;
+
+        m_Stamp[node] = m_Search;
+        m_Closed[node] = false;
+        m_GScore[node] = g;
+        m_Parent[node] = parent;
+        m_Via[node] = via;
+        push(((long) (g + heuristic(node, goalX, goalY)) << 32) | node);
+    }
+
+    // Walks the abstract path back from the goal, then expands every edge into tiles
+    private void refine(int startX, int startY, IntArray path) {
+        int start = m_NodeTiles.size, goal = start + 1;
+
+        m_Chain.clear();
+        for (int node = goal; node != -1; node = m_Parent[node])
+            m_Chain.add(node);
+        m_Chain.reverse();
+
+        path.add(pack(startX, startY));
+        for (int i = 1; i < m_Chain.size; ++i) {
+            int node = m_Chain.get(i), previous = m_Chain.get(i - 1);
+
+            if (previous == start) {
+                int tile = node == goal ? pack(m_GoalSearch.sourceX, m_GoalSearch.sourceY) : m_NodeTiles.get(node);
+                path.addAll(m_StartSearch.pathTo(tile / m_Height, tile % m_Height));
+            } else if (node == goal) {
+                int tile = m_NodeTiles.get(previous);
+                m_GoalSearch.appendPathFrom(tile / m_Height, tile % m_Height, path);
+            } else {
+                path.addAll(m_Via[node].path);
+            }
+        }
+    }
+
+    private void nextSearch() {
+        m_HeapSize = 0;
+        if (++m_Search == 0) {
+            // The stamp wrapped around, so old stamps could collide with new searches
+            Arrays.fill(m_Stamp, 0);
+            m_Search = 1;
+        }
+    }
+
+    private void push(long entry) {
+        if (m_HeapSize == m_Heap.length) m_Heap = Arrays.copyOf(m_Heap, m_HeapSize * 2);
+
+        int index = m_HeapSize++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (m_Heap[parent] <= entry) break;
+            m_Heap[index] = m_Heap[parent];
+            index = parent;
+        }
+        m_Heap[index] = entry;
+    }
+
+    private long pop() {
+        long top = m_Heap[0];
+        long last = m_Heap[--m_HeapSize];
+
+        int index = 0, half = m_HeapSize >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            if (child + 1 < m_HeapSize && m_Heap[child + 1] < m_Heap[child]) child++;
+            if (m_Heap[child] >= last) break;
+            m_Heap[index] = m_Heap[child];
+            index = child;
+        }
+        if (m_HeapSize > 0) m_Heap[index] = last;
+
+        return top;
+    }
+
+    /** Breadth-first search confined to one cluster, reused for building edges and linking query endpoints. */
+    private final class ClusterSearch {
+        private static final int CELLS = TileGrid.CHUNK_SIZE * TileGrid.CHUNK_SIZE;
+
+        private final int[] m_Distance = new int[CELLS];
+        private final int[] m_Parent = new int[CELLS];
+        private final int[] m_Stamp = new int[CELLS];
+        private final int[] m_Queue = new int[CELLS];
+        private int m_Pass;
+        private int m_MinX, m_MinY, m_MaxX, m_MaxY;
+
+        int sourceX, sourceY;
+
+        void run(int cluster, int x, int y) {
+            TileGrid.Chunk chunk = m_Tiles.getChunk(cluster);
+            m_MinX = chunk.x;
+            m_MinY = chunk.y;
+            m_MaxX = chunk.x + chunk.width - 1;
+            m_MaxY = chunk.y + chunk.height - 1;
+            sourceX = x;
+            sourceY = y;
+
+            if (++m_Pass == 0) {
+                Arrays.fill(m_Stamp, 0);
+                m_Pass = 1;
+            }
+
+            int source = local(x, y);
+            m_Stamp[source] = m_Pass;
+            m_Distance[source] = 0;
+            m_Parent[source] = -1;
+
+            int head = 0, tail = 0;
+            m_Queue[tail++] = source;
+            while (head < tail) {
+                int current = m_Queue[head++];
+                int cx = m_MinX + (current >> TileGrid.CHUNK_SHIFT);
+                int cy = m_MinY + (current & TileGrid.CHUNK_MASK);
+                int distance = m_Distance[current] + 1;
+
+                if (cx > m_MinX) tail = reach(cx - 1, cy, current, distance, tail);
+                if (cx < m_MaxX) tail = reach(cx + 1, cy, current, distance, tail);
+                if (cy > m_MinY) tail = reach(cx, cy - 1, current, distance, tail);
+                if (cy < m_MaxY) tail = reach(cx, cy + 1, current, distance, tail);
+            }
+        }
+
+        /** @return the number of steps from the source, or -1 if the tile wasn't reached */
+        int distance(int x, int y) {
+            int cell = local(x, y);
+            return m_Stamp[cell] == m_Pass ? m_Distance[cell] : -1;
+        }
+
+        /** @return the tiles from just after the source up to and including the given tile */
+        int[] pathTo(int x, int y) {
+            int cell = local(x, y);
+            int[] path = new int[m_Distance[cell]];
+            for (int i = path.length - 1; i >= 0; --i) {
+                path[i] = pack(m_MinX + (cell >> TileGrid.CHUNK_SHIFT), m_MinY + (cell & TileGrid.CHUNK_MASK));
+                cell = m_Parent[cell];
+            }
+            return path;
+        }
+
+        /** Appends the tiles from just after the given tile up to and including the source. */
+        void appendPathFrom(int x, int y, IntArray path) {
+            for (int cell = m_Parent[local(x, y)]; cell != -1; cell = m_Parent[cell])
+                path.add(pack(m_MinX + (cell >> TileGrid.CHUNK_SHIFT), m_MinY + (cell & TileGrid.CHUNK_MASK)));
+        }
+
+        private int reach(int x, int y, int parent, int distance, int tail) {
+            int cell = local(x, y);
+            if (m_Stamp[cell] == m_Pass || !m_Passable.isPassable(x, y)) return tail;
+
+            m_Stamp[cell] = m_Pass;
+            m_Distance[cell] = distance;
+            m_Parent[cell] = parent;
+            m_Queue[tail++] = cell;
+            return tail;
+        }
+
+        private int local(int x, int y) {
+            return ((x - m_MinX) << TileGrid.CHUNK_SHIFT) | (y - m_MinY);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package dev.atomix.level;
+
+/** An L-shaped room made of two rectangles, the second one placed according to an orientation. */
+class LRoom extends Room {
+    int width2, height2; // Second part dimensions
+    int orientation; // 0: left, 1: right, 2: up, 3: down
+
+    LRoom(int x, int y, int width1, int height1, int width2, int height2, int orientation) {
+        super(x, y, width1, height1);
+        this.width2 = width2;
+        this.height2 = height2;
+        this.orientation = orientation;
+    }
+
+    @Override
+    int right() {
+        return x + width + width2;
+    }
+
+    @Override
+    int top() {
+        return y + height + height2;
+    }
+
+    void carveLShape(TileGrid tiles) {
+        // Carve the main part of the L shape
+        for (int x = this.x; x < this.x + this.width; x++) {
+            for (int y = this.y; y < this.y + this.height; y++) {
+                tiles.set(x, y, Map.TileType.FLOOR); // Carve out the floor
+            }
+        }
+
+        // Carve the second part based on orientation
+        switch (orientation) {
+            case 0: // Left L
+                for (int x = this.x; x < this.x + width2; x++) {
+                    for (int y = this.y + this.height; y < this.y + this.height + height2; y++) {
+                        tiles.set(x, y, Map.TileType.FLOOR); // Carve out the second part
+                    }
+                }
+                break;
+            case 1: // Right L
+                for (int x = this.x + this.height; x < this.x + this.width + width2; x++) {
+                    for (int y = this.y; y < this.y + this.height + height2; y++) {
+                        tiles.set(x, y, Map.TileType.FLOOR); // Carve out the second part
+                    }
+                }
+                break;
+            case 2: // Up L
+                for (int x = this.x; x < this.x + this.width + width2; x++) {
+                    for (int y = this.y + this.height; y < this.y + this.height + height2; y++) {
+                        tiles.set(x, y, Map.TileType.FLOOR); // Carve out the second part
+                    }
+                }
+                break;
+            case 3: // Down L
+                for (int x = this.x; x < this.x + this.width; x++) {
+                    for (int y = this.y; y < this.y + this.height + height2; y++) {
+                        tiles.set(x, y, Map.TileType.FLOOR); // Carve out the second part
+                    }
+                }
+                break;
+        }
+    }
+}
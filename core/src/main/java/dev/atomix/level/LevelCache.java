@@ -0,0 +1,338 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import dev.atomix.Game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps generated levels around so asking for the same level twice doesn't regenerate it. Levels are keyed by seed, size
+ * and room parameters, which together fully determine the generator's output.
+ * <p>
+ * The memory tier holds up to {@code capacity} maps and evicts the least recently used one. With a directory set, evicted
+ * maps are spilled to disk as {@link LevelSnapshot}s and loaded back from there on a later miss instead of being
+ * regenerated. Both tiers keep a map's {@link FieldOfView}, so a floor remembers what was explored on it. The snapshots
+ * this cache spills are kept under a disk budget, least recently used deleted first, and all deleted on
+ * {@link #dispose()}.
+ * <p>
+ * Snapshots are written, read and deleted outside the cache's lock, so a lookup never waits on another thread's disk
+ * I/O. An evicted map is still handed out while its snapshot is being written.
+ * <p>
+ * The cache owns the maps it hands out. Disposing one only frees its GL resources, which are rebuilt on the next draw,
+ * so callers may dispose maps they stop drawing without evicting them.
+ */
+public class LevelCache implements Disposable {
+
+    /** Default disk budget for spilled snapshots, in bytes */
+    public static final long DEFAULT_DISK_BUDGET = 64L * 1024 * 1024;
+
+    /** Everything that affects a generated level. */
+    public record Key(long seed, int width, int height, int minRooms, int maxRooms, float extraCorridors) {
+
+        public static Key of(MapGenerator generator) {
+            return new Key(generator.getSeed(), generator.getWidth(), generator.getHeight(),
+                generator.getMinRooms(), generator.getMaxRooms(), generator.getExtraCorridors());
+        }
+
+        String fileName() {
+            return String.format("%016x-%dx%d-%d-%d-%08x.lvl", seed, width, height, minRooms, maxRooms, Float.floatToIntBits(extraCorridors));
+        }
+    }
+
+    private final int m_Capacity;
+    private final Path m_Directory;
+    private final long m_DiskBudget;
+    private final TextureRegion m_WallTexture, m_EmptyTexture, m_FloorTexture;
+    private final LinkedHashMap<Key, Map> m_Levels;
+
+    // Snapshots spilled by this cache and their sizes, least recently used first
+    private final LinkedHashMap<Key, Long> m_Spilled = new LinkedHashMap<>(16, 0.75f, true);
+    private long m_DiskBytes;
+
+    // Evicted maps whose snapshots are still to be written, in eviction order
+    private final HashMap<Key, Map> m_Spilling = new HashMap<>();
+    private final ArrayDeque<Key> m_PendingSpills = new ArrayDeque<>();
+
+    // Serializes snapshot writes and deletes; taken before the cache's own lock, never while holding it
+    private final Object m_DiskLock = new Object();
+
+    private long m_Hits, m_DiskHits, m_Misses, m_Evictions;
+
+    /**
+     * @param capacity how many maps the memory tier holds
+     * @param directory where evicted maps are spilled, or null to keep the cache in memory only
+     */
+    public LevelCache(int capacity, Path directory, TextureRegion wall, TextureRegion empty, TextureRegion floor) {
+        this(capacity, directory, DEFAULT_DISK_BUDGET, wall, empty, floor);
+    }
+
+    /**
+     * @param capacity how many maps the memory tier holds
+     * @param directory where evicted maps are spilled, or null to keep the cache in memory only
+     * @param diskBudget how many bytes of spilled snapshots are kept before the least recently used ones are deleted
+     */
+    public LevelCache(int capacity, Path directory, long diskBudget, TextureRegion wall, TextureRegion empty, TextureRegion floor) {
+        if (capacity < 1) throw new IllegalArgumentException("Invalid level cache capacity: " + capacity);
+        if (diskBudget < 0) throw new IllegalArgumentException("Invalid level cache disk budget: " + diskBudget);
+
+        m_Capacity = capacity;
+        m_Directory = directory;
+        m_DiskBudget = diskBudget;
+        m_WallTexture = wall;
+        m_EmptyTexture = empty;
+        m_FloorTexture = floor;
+
+        // Access order, so the eldest entry is the least recently used
+        m_Levels = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Key, Map> eldest) {
+                if (size() <= m_Capacity) return false;
+
+                // Only queued here, the snapshot is written once the lock is released
+                evict(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the generator's level, loading it from the memory or disk tier if it was seen before and running the
+     * generator otherwise. The generator is left untouched on a hit.
+     */
+    public Map get(MapGenerator generator) {
+        Key key = Key.of(generator);
+        Map map = lookup(key);
+        if (map == null) map = insert(key, new Map(generator.generate(), m_WallTexture, m_EmptyTexture, m_FloorTexture));
+
+        spill();
+        return map;
+    }
+
+    /**
+     * Like {@link #get}, but a miss runs the generator through {@link MapGenerator#generateAsync()}. Memory and disk
+     * lookups happen on the calling thread, the
+     * snapshots a generated level pushes out are written on the thread that finishes it.
+     */
+    public CompletableFuture<Map> getAsync(MapGenerator generator) {
+        Key key = Key.of(generator);
+        Map map = lookup(key);
+        if (map != null) {
+            spill();
+            return CompletableFuture.completedFuture(map);
+        }
+
+        return generator.generateAsync().thenApply(done -> {
+            Map inserted = insert(key, new Map(done, m_WallTexture, m_EmptyTexture, m_FloorTexture));
+            spill();
+            return inserted;
+        });
+    }
+
+    public boolean contains(Key key) {
+        synchronized (this) {
+            if (m_Levels.containsKey(key) || m_Spilling.containsKey(key)) return true;
+        }
+        return m_Directory != null && Files.isRegularFile(m_Directory.resolve(key.fileName()));
+    }
+
+    public synchronized int size() {
+        return m_Levels.size();
+    }
+
+    /** @return lookups answered from memory */
+    public synchronized long getHits() {
+        return m_Hits;
+    }
+
+    /** @return lookups answered from a spilled snapshot */
+    public synchronized long getDiskHits() {
+        return m_DiskHits;
+    }
+
+    /** @return lookups that had to generate the level */
+    public synchronized long getMisses() {
+        return m_Misses;
+    }
+
+    public synchronized long getEvictions() {
+        return m_Evictions;
+    }
+
+    /** @return the size in bytes of the snapshots this cache has spilled and not yet deleted */
+    public synchronized long getDiskBytes() {
+        return m_DiskBytes;
+    }
+
+    // Checks memory, then the disk. The snapshot is read without holding the lock.
+    private Map lookup(Key key) {
+        synchronized (this) {
+            Map map = m_Levels.get(key);
+            if (map == null) {
+                // Evicted but not written out yet, so it can go straight back
+                map = m_Spilling.remove(key);
+                if (map != null) m_Levels.put(key, map);
+            }
+            if (map != null) {
+                m_Hits++;
+                return map;
+            }
+        }
+
+        Map map = load(key);
+        synchronized (this) {
+            if (map == null) {
+                m_Misses++;
+                return null;
+            }
+
+            m_DiskHits++;
+            m_Spilled.get(key); // Touch it, so recently loaded snapshots are the last to go
+        }
+        return insert(key, map);
+    }
+
+    private synchronized Map insert(Key key, Map map) {
+        // Two lookups of the same level can miss at once, the first one to finish wins
+        Map existing = m_Levels.get(key);
+        if (existing != null) {
+            disposeLater(map);
+            return existing;
+        }
+
+        m_Levels.put(key, map);
+        return map;
+    }
+
+    private Map load(Key key) {
+        if (m_Directory == null) return null;
+
+        Path path = m_Directory.resolve(key.fileName());
+        if (!Files.isRegularFile(path)) return null;
+
+        try {
+            return new Map(LevelSnapshot.read(path), m_WallTexture, m_EmptyTexture, m_FloorTexture);
+        } catch (IOException e) {
+            Game.LOGGER.error("Discarding unreadable level snapshot " + path, e);
+            synchronized (m_DiskLock) {
+                List<Key> deleted = new ArrayList<>();
+                synchronized (this) {
+                    forget(key, deleted);
+                }
+                delete(deleted);
+            }
+            return null;
+        }
+    }
+
+    // Called under the lock from removeEldestEntry
+    private void evict(Key key, Map map) {
+        m_Evictions++;
+
+        if (m_Directory == null) {
+            disposeLater(map);
+            return;
+        }
+
+        if (m_Spilling.put(key, map) == null) m_PendingSpills.add(key);
+    }
+
+    // Writes the snapshots of evicted maps, then deletes whatever no longer fits the disk budget
+    private void spill() {
+        if (m_Directory == null) return;
+
+        synchronized (m_DiskLock) {
+            while (true) {
+                Key key;
+                Map map;
+                synchronized (this) {
+                    key = m_PendingSpills.poll();
+                    if (key == null) return;
+
+                    map = m_Spilling.get(key);
+                    if (map == null) continue; // Looked up again before it was written
+                }
+
+                Path path = m_Directory.resolve(key.fileName());
+                long size = -1L;
+                try {
+                    // Written again even if an older snapshot exists, more of the level may have been explored since
+                    LevelSnapshot.write(map, path);
+                    size = Files.size(path);
+                } catch (IOException e) {
+                    Game.LOGGER.error("Failed to spill level to " + path, e);
+                }
+
+                List<Key> deleted = new ArrayList<>();
+                synchronized (this) {
+                    // Only freed if nobody took it back while it was being written
+                    if (m_Spilling.remove(key, map)) disposeLater(map);
+
+                    if (size >= 0) {
+                        Long previous = m_Spilled.put(key, size);
+                        m_DiskBytes += size - (previous != null ? previous : 0L);
+                    }
+                    while (m_DiskBytes > m_DiskBudget && !m_Spilled.isEmpty())
+                        forget(m_Spilled.keySet().iterator().next(), deleted);
+                }
+                delete(deleted);
+            }
+        }
+    }
+
+    // Drops a snapshot from the books under the lock; the file itself is deleted afterwards
+    private void forget(Key key, List<Key> deleted) {
+        Long size = m_Spilled.remove(key);
+        if (size != null) m_DiskBytes -= size;
+        deleted.add(key);
+    }
+
+    private void delete(List<Key> keys) {
+        for (Key key : keys) {
+            Path path = m_Directory.resolve(key.fileName());
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Nothing reads it again unless the same level is spilled, which overwrites it
+                Game.LOGGER.error("Failed to delete level snapshot " + path, e);
+            }
+        }
+    }
+
+    // Evictions can happen on a worker thread, GL resources must be freed on the render thread
+    private static void disposeLater(Map map) {
+        if (Gdx.app != null) Gdx.app.postRunnable(map::dispose);
+        else map.dispose();
+    }
+
+    /** Frees every map held in memory and deletes every snapshot this cache spilled. */
+    @Override
+    public void dispose() {
+        synchronized (m_DiskLock) {
+            List<Key> deleted = new ArrayList<>();
+            synchronized (this) {
+                for (Map map : m_Levels.values())
+                    map.dispose();
+                m_Levels.clear();
+
+                for (Map map : m_Spilling.values())
+                    map.dispose();
+                m_Spilling.clear();
+                m_PendingSpills.clear();
+
+                while (!m_Spilled.isEmpty())
+                    forget(m_Spilled.keySet().iterator().next(), deleted);
+            }
+            if (m_Directory != null) delete(deleted);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.Disposable;
+import dev.atomix.Game;
+
+import java.util.SplittableRandom;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Generates upcoming floors in the background while the player is on the current one, handing finished {@link Map}s
+ * over through a bounded queue. Floors are generated one after another so they come out in order, and each floor's seed
+ * is drawn from the run seed so a run is reproducible.
+ * <p>
+ * Nothing here touches GL: the loader only wraps generator output, and each map bakes its static layer lazily on the
+ * render thread the first time its chunks are drawn.
+ * <p>
+ * Generation is deterministic per seed, so a floor is only retried, with the same seed, when it failed for a reason
+ * outside the generator: the executor rejecting the work, running out of memory or the loader failing on I/O.
+ * Any other failure, or one that keeps happening, stops the pipeline: nothing after that floor is handed out, so the
+ * floors of a run never shift, {@link #getFailure()} reports why and {@link #take()} throws.
+ * <p>
+ * {@link #poll()}, {@link #take()} and {@link #dispose()} are meant to be called from the render thread only.
+ */
+public class LevelPipeline implements Disposable {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final int m_Width, m_Height;
+    private final ForkJoinPool m_Executor;
+    private final Function<MapGenerator, CompletableFuture<Map>> m_Loader;
+
+    private final SplittableRandom m_Seeds;
+    private final BlockingQueue<Map> m_Ready;
+
+    private CompletableFuture<Void> m_Tail;
+    private volatile boolean m_Disposed;
+    private volatile Throwable m_Failure;
+
+    /**
+     * @param firstFloor how many floors of the run to skip, so a run can be resumed where it was left
+     * @param depth how many floors to keep generated ahead of the player
+     * @param loader turns an unstarted generator into its map, for example by running it or through a {@link LevelCache}
+     */
+    public LevelPipeline(long seed, int firstFloor, int width, int height, int depth,
+                         Function<MapGenerator, CompletableFuture<Map>> loader, ForkJoinPool executor) {
+        m_Width = width;
+        m_Height = height;
+        m_Executor = executor;
+        m_Loader = loader;
+
+        m_Seeds = new SplittableRandom(seed);
+        for (int i = 0; i < firstFloor; ++i)
+            m_Seeds.nextLong();
+        m_Ready = new ArrayBlockingQueue<>(depth);
+        m_Tail = CompletableFuture.completedFuture(null);
+
+        for (int i = 0; i < depth; ++i)
+            schedule();
+    }
+
+    /** @return the next finished floor, or null if it is still being generated */
+    public Map poll() {
+        Map map = m_Ready.poll();
+        if (map != null) schedule(); // Keep the queue topped up
+        return map;
+    }
+
+    /**
+     * Blocks until the next floor is ready. Only meant for the very first floor, when nothing could be prepared.
+     *
+     * @throws IllegalStateException if the floor could not be generated
+     */
+    public Map take() {
+        try {
+            Map map;
+            while ((map = m_Ready.poll(50, TimeUnit.MILLISECONDS)) == null) {
+                // Checked after polling, so a floor finished just before a later failure is still handed out
+                if (m_Failure != null && m_Ready.isEmpty()) throw new IllegalStateException("Failed to generate the next floor", m_Failure);
+            }
+
+            schedule();
+            return map;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the next floor", e);
+        }
+    }
+
+    public boolean isReady() {
+        return !m_Ready.isEmpty();
+    }
+
+    /** @return why the pipeline stopped, or null while it is still generating floors */
+    public Throwable getFailure() {
+        return m_Failure;
+    }
+
+    private void schedule() {
+        long floorSeed = m_Seeds.nextLong();
+
+        // Chained onto the previous floor so floors finish in the order they will be visited
+        m_Tail = m_Tail
+            .thenCompose(ignored -> m_Failure != null ? CompletableFuture.<Map>completedFuture(null) : load(floorSeed, 1))
+            .thenAccept(map -> {
+                if (map == null) return; // An earlier floor failed, nothing after it is handed out
+
+                m_Ready.add(map);
+
+                // The pipeline may have been disposed while this floor was generating
+                if (m_Disposed && m_Ready.remove(map)) map.dispose();
+            })
+            .exceptionally(e -> {
+                // Skipping the floor would shift every floor after it, so the pipeline stops here
+                m_Failure = e;
+                Game.LOGGER.error("Failed to generate floor with seed " + floorSeed, e);
+                return null;
+            });
+    }
+
+    private CompletableFuture<Map> load(long floorSeed, int attempt) {
+        CompletableFuture<Map> result;
+        try {
+            result = m_Loader.apply(new MapGenerator(floorSeed, m_Width, m_Height, m_Executor));
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        if (attempt >= MAX_ATTEMPTS) return result;
+
+        return result.thenApply(CompletableFuture::completedFuture)
+            .exceptionally(e -> {
+                // The same seed fails the same way again, unless the failure came from outside the generator
+                if (!isTransient(e)) return CompletableFuture.failedFuture(e);
+
+                Game.LOGGER.error("Retrying floor with seed " + floorSeed + ", attempt " + attempt + " failed", e);
+                return load(floorSeed, attempt + 1);
+            })
+            .thenCompose(map -> map);
+    }
+
+    private static boolean isTransient(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null)
+            e = e.getCause();
+
+        return e instanceof RejectedExecutionException || e instanceof OutOfMemoryError || e instanceof UncheckedIOException;
+    }
+
+    @Override
+    public void dispose() {
+        m_Disposed = true;
+
+        Map map;
+        while ((map = m_Ready.poll()) != null)
+            map.dispose();
+    }
+}
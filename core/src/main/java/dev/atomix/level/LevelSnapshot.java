@@ -0,0 +1,204 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.math.Vector3;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A generated level stored on disk, so it can be loaded back instead of being regenerated.
+ * <p>
+ * The file is a fixed header followed by every {@link TileGrid.Chunk} in index order, each packed at 2 bits per tile
+ * into {@value #CHUNK_BYTES} bytes. Every chunk has the same size, so a chunk's offset is known without reading the ones
+ * before it. Reading pulls the whole file into one heap buffer and unpacks the chunks out of it. The file isn't mapped,
+ * since a live mapping keeps it from being replaced or deleted on some platforms and a level is spilled again to the
+ * same path. If the level had a {@link FieldOfView}, what was explored follows the tiles as its bitset, so a level
+ * loaded back still remembers it.
+ * <pre>
+ * int   magic ("ATLV")
+ * int   version
+ * int   width, height
+ * long  seed
+ * byte  fully connected (0 or 1)
+ * float base r, g, b
+ * float accent r, g, b
+ * byte  has field of view (0 or 1)
+ * byte[chunks * 256] tiles
+ * long[(width * height + 63) / 64] explored, only with a field of view
+ * </pre>
+ * All values are big-endian.
+ */
+public class LevelSnapshot {
+
+    public static final int MAGIC = 0x41544C56; // "ATLV"
+    public static final int VERSION = 2;
+
+    // 2 bits per tile fits up to four tile types, more needs a new version
+    private static final int BITS_PER_TILE = 2;
+    private static final int TILES_PER_BYTE = 8 / BITS_PER_TILE;
+    static final int CHUNK_BYTES = TileGrid.CHUNK_SIZE * TileGrid.CHUNK_SIZE / TILES_PER_BYTE;
+    static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8 + 1 + 6 * 4 + 1;
+
+    private final int m_Width, m_Height;
+    private final long m_Seed;
+    private final boolean m_Connected;
+    private final TileGrid m_Tiles;
+    private final Vector3 m_BaseColor, m_AccentColor;
+    private final long[] m_Explored;
+
+    private LevelSnapshot(TileGrid tiles, long seed, boolean connected, Vector3 base, Vector3 accent, long[] explored) {
+        m_Width = tiles.getWidth();
+        m_Height = tiles.getHeight();
+        m_Tiles = tiles;
+        m_Seed = seed;
+        m_Connected = connected;
+        m_BaseColor = base;
+        m_AccentColor = accent;
+        m_Explored = explored;
+    }
+
+    public int getWidth() {
+        return m_Width;
+    }
+
+    public int getHeight() {
+        return m_Height;
+    }
+
+    public long getSeed() {
+        return m_Seed;
+    }
+
+    public boolean isFullyConnected() {
+        return m_Connected;
+    }
+
+    /** @return the loaded tiles, every chunk marked dirty */
+    public TileGrid getTiles() {
+        return m_Tiles;
+    }
+
+    Vector3 getBaseColor() {
+        return m_BaseColor;
+    }
+
+    Vector3 getAccentColor() {
+        return m_AccentColor;
+    }
+
+    /** @return the explored bitset of the level's field of view, or null if it had none */
+    long[] getExplored() {
+        return m_Explored;
+    }
+
+    /** @return the size in bytes of a snapshot of a level with the given dimensions */
+    public static long sizeOf(int width, int height, boolean explored) {
+        long chunks = (long) ((width + TileGrid.CHUNK_MASK) >> TileGrid.CHUNK_SHIFT) * ((height + TileGrid.CHUNK_MASK) >> TileGrid.CHUNK_SHIFT);
+        long words = explored ? ((long) width * height + 63) >>> 6 : 0;
+        return HEADER_BYTES + chunks * CHUNK_BYTES + words * 8;
+    }
+
+    /**
+     * Writes a level to disk. The file is written next to its destination first and then moved in place, so a reader
+     * never sees a partially written snapshot.
+     */
+    public static void write(Map map, Path path) throws IOException {
+        TileGrid tiles = map.getTiles();
+        FieldOfView vision = map.getFieldOfView();
+        ByteBuffer buffer = ByteBuffer.allocate((int) sizeOf(tiles.getWidth(), tiles.getHeight(), vision != null));
+
+        Vector3 base = map.getBaseColor(), accent = map.getAccentColor();
+        buffer.putInt(MAGIC).putInt(VERSION)
+            .putInt(tiles.getWidth()).putInt(tiles.getHeight())
+            .putLong(map.getSeed())
+            .put((byte) (map.isFullyConnected() ? 1 : 0))
+            .putFloat(base.x).putFloat(base.y).putFloat(base.z)
+            .putFloat(accent.x).putFloat(accent.y).putFloat(accent.z)
+            .put((byte) (vision != null ? 1 : 0));
+
+        for (TileGrid.Chunk chunk : tiles) {
+            byte[] ids = chunk.tiles;
+            for (int i = 0; i < ids.length; i += TILES_PER_BYTE)
+                buffer.put((byte) (ids[i] | (ids[i + 1] << 2) | (ids[i + 2] << 4) | (ids[i + 3] << 6)));
+        }
+        if (vision != null) buffer.asLongBuffer().put(vision.getExploredBits());
+        buffer.position(buffer.capacity());
+        buffer.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a level written by {@link #write}.
+     *
+     * @throws IOException if the file can't be read or isn't a valid snapshot
+     */
+    public static LevelSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) throw new IOException("Not a level snapshot: " + path);
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0) throw new IOException("Truncated level snapshot: " + path);
+            buffer.flip();
+
+            if (buffer.getInt() != MAGIC) throw new IOException("Not a level snapshot: " + path);
+
+            int version = buffer.getInt();
+            if (version != VERSION) throw new IOException("Unsupported level snapshot version " + version + ": " + path);
+
+            int width = buffer.getInt(), height = buffer.getInt();
+            long seed = buffer.getLong();
+            boolean connected = buffer.get() != 0;
+            Vector3 base = new Vector3(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+            Vector3 accent = new Vector3(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+            boolean explored = buffer.get() != 0;
+
+            if (width <= 0 || height <= 0 || size != sizeOf(width, height, explored))
+                throw new IOException("Corrupt level snapshot " + width + "x" + height + " (" + size + " bytes): " + path);
+
+            TileGrid tiles = new TileGrid(width, height);
+            for (TileGrid.Chunk chunk : tiles)
+                if (!unpack(buffer, chunk.tiles)) throw new IOException("Corrupt tile data in chunk " + chunk.index + ": " + path);
+            tiles.updateMasks(); // Derived from the tiles, so they aren't stored
+
+            long[] bits = null;
+            if (explored) {
+                bits = new long[(int) (((long) width * height + 63) >>> 6)];
+                buffer.asLongBuffer().get(bits);
+            }
+
+            return new LevelSnapshot(tiles, seed, connected, base, accent, bits);
+        }
+    }
+
+    // Unpacks one chunk, returning false if any tile id is out of range
+    private static boolean unpack(ByteBuffer buffer, byte[] ids) {
+        int invalid = 0;
+        for (int i = 0; i < ids.length; i += TILES_PER_BYTE) {
+            int packed = buffer.get();
+            ids[i]     = (byte) (packed & 3);
+            ids[i + 1] = (byte) ((packed >> 2) & 3);
+            ids[i + 2] = (byte) ((packed >> 4) & 3);
+            ids[i + 3] = (byte) ((packed >> 6) & 3);
+
+            // Id 3 isn't a tile type (yet), it shows up as both bits of a pair set
+            invalid |= packed & (packed >> 1) & 0x55;
+        }
+        return invalid == 0;
+    }
+}
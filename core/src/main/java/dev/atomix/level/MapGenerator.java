@@ -0,0 +1,424 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntArray;
+import dev.atomix.Game;
+import dev.atomix.level.Map.TileType;
+import dev.atomix.metrics.Counter;
+import dev.atomix.metrics.Timer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Generates the tile layout of a level from a single {@code long} seed. Every phase that needs randomness draws from
+ * its own {@link SplittableRandom} split off the seed in a fixed order, so the result doesn't depend on which thread a
+ * phase runs on and the same seed always yields the same tiles.
+ */
+public class MapGenerator {
+
+    // How many of its nearest rooms each room considers for a corridor
+    private static final int CORRIDOR_CANDIDATES = 4;
+
+    private static final Timer FILL_TIMER = Game.METRICS.timer("generation.fill");
+    private static final Timer ROOMS_TIMER = Game.METRICS.timer("generation.rooms");
+    private static final Timer CARVE_TIMER = Game.METRICS.timer("generation.carve");
+    private static final Timer CONNECT_TIMER = Game.METRICS.timer("generation.connect");
+    private static final Timer WALLS_TIMER = Game.METRICS.timer("generation.walls");
+    private static final Timer TOTAL_TIMER = Game.METRICS.timer("generation.total");
+    private static final Counter FAILURES = Game.METRICS.counter("generation.failures");
+
+    private final long m_Seed;
+    private final int m_Width, m_Height;
+    private TileGrid m_Tiles;
+    private TileGrid m_Scratch;
+
+    private final SplittableRandom m_RoomRandom;
+    private final SplittableRandom m_CorridorRandom;
+
+    private final ForkJoinPool m_Executor;
+    private final CellularPass m_Cellular;
+    private final AStar m_PathFinder;
+    private final IntArray m_Path;
+    private final PolygonRasterizer m_Rasterizer;
+
+    private int m_MinRooms, m_MaxRooms;
+    private float m_ExtraCorridors;
+    private RoomIndex m_RoomIndex;
+    private List<Room> m_Rooms;
+    private DisjointSet m_Connectivity;
+
+    /** Creates a generator that runs its phases on the shared {@link Game#GetWorkers() worker pool}. */
+    public MapGenerator(long seed, int width, int height) {
+        this(seed, width, height, Game.GetWorkers());
+    }
+
+    public MapGenerator(long seed, int width, int height, ForkJoinPool executor) {
+        m_Seed = seed;
+        m_Executor = executor;
+        m_Cellular = new CellularPass(executor);
+        m_Width = width;
+        m_Height = height;
+        m_Tiles = new TileGrid(width, height);
+
+        // Split in a fixed order so each phase always sees the same stream for a given seed
+        SplittableRandom root = new SplittableRandom(seed);
+        root.split(); // The palette's stream, drawn again from the seed by createPalette
+        m_RoomRandom = root.split();
+        m_CorridorRandom = root.split();
+
+        m_PathFinder = new AStar(width, height);
+        m_Path = new IntArray();
+        m_Rasterizer = new PolygonRasterizer();
+        m_Rooms = new ArrayList<>();
+        m_RoomIndex = new RoomIndex(width, height);
+        m_MinRooms = 5;
+        m_MaxRooms = 10;
+        m_ExtraCorridors = 0.15f;
+    }
+
+    /**
+     * Sets how many rooms generation attempts to place, inclusive. Rooms that overlap or don't fit are dropped, so the
+     * final count can be lower.
+     *
+     * @return this generator for chaining
+     */
+    public MapGenerator setRoomCount(int min, int max) {
+        if (min < 1 || max < min) throw new IllegalArgumentException("Invalid room count range: " + min + ".." + max);
+
+        m_MinRooms = min;
+        m_MaxRooms = max;
+        return this;
+    }
+
+    /**
+     * Sets the fraction, between 0 and 1, of candidate corridors outside the spanning tree that are carved anyway to add
+     * loops to the level.
+     *
+     * @return this generator for chaining
+     */
+    public MapGenerator setExtraCorridors(float fraction) {
+        if (fraction < 0.0f || fraction > 1.0f) throw new IllegalArgumentException("Invalid corridor fraction: " + fraction);
+
+        m_ExtraCorridors = fraction;
+        return this;
+    }
+
+    public float getExtraCorridors() {
+        return m_ExtraCorridors;
+    }
+
+    public int getMinRooms() {
+        return m_MinRooms;
+    }
+
+    public int getMaxRooms() {
+        return m_MaxRooms;
+    }
+
+    /**
+     * Runs every generation phase and waits for them to finish. Calling this twice on generators built with the same
+     * seed and size always produces the same tiles.
+     *
+     * @throws CompletionException if a phase failed, after logging it
+     * @return this generator, for reading back the results
+     */
+    public MapGenerator generate() {
+        try {
+            generateAsync().join();
+        } catch (CompletionException e) {
+            Game.LOGGER.error("Failed to generate level with seed " + m_Seed, e.getCause());
+            throw e;
+        }
+
+        return this;
+    }
+
+    /**
+     * Schedules the generation phases on the generator's executor as a dependency graph. Filling the grid and sampling
+     * room shapes don't depend on each other and run side by side; carving waits for both, then corridors, then walls.
+     *
+     * @return a future completed with this generator once the walls are set
+     */
+    public CompletableFuture<MapGenerator> generateAsync() {
+        long start = TOTAL_TIMER.start();
+
+        // Phase 1: Fill the map with NONE tiles
+        CompletableFuture<Void> fill = CompletableFuture.runAsync(() -> FILL_TIMER.time(this::fillWithNoneTiles), m_Executor);
+
+        // Phase 2: Create rooms in a pseudo-random fashion, carving them once the grid is filled
+        CompletableFuture<List<Room>> sample = CompletableFuture.supplyAsync(() -> ROOMS_TIMER.time(this::sampleRooms), m_Executor);
+        CompletableFuture<List<Room>> rooms = fill.thenCombine(sample, (ignored, sampled) -> CARVE_TIMER.time(() -> carveRooms(sampled)));
+
+        // Phase 3: Connect rooms with corridors using A* pathfinding
+        // Phase 4: Set walls based on floor tile proximity
+        return rooms.thenAccept(connected -> CONNECT_TIMER.time(() -> connectRooms(connected)))
+            .thenRun(() -> WALLS_TIMER.time(this::setWalls))
+            .thenApply(ignored -> this)
+            .whenComplete((done, e) -> {
+                if (e != null) FAILURES.increment();
+                else TOTAL_TIMER.stop(start);
+            });
+    }
+
+    void fillWithNoneTiles() {
+        // Start with all empty tiles, each chunk filled on its own task
+        m_Cellular.forEachChunk(m_Tiles, chunk -> {
+            Arrays.fill(chunk.tiles, (byte) TileType.NONE.ordinal());
+            chunk.markDirty();
+        });
+    }
+
+    List<Room> createRooms() {
+        return carveRooms(sampleRooms());
+    }
+
+    /** Picks room shapes and positions without touching the grid. */
+    List<Room> sampleRooms() {
+        List<Room> rooms = new ArrayList<>();
+        m_RoomIndex = new RoomIndex(m_Width, m_Height);
+
+        int roomCount = m_RoomRandom.nextInt(m_MinRooms, m_MaxRooms + 1);
+        for (int i = 0; i < roomCount; i++) {
+            Room room = createRoom();
+            if(room == null) continue;
+
+            if (!isTooCloseToExistingRooms(room)) {
+                room.id = rooms.size();
+                rooms.add(room);
+                m_RoomIndex.add(room);
+            }
+        }
+        return rooms; // Return the list of rooms created
+    }
+
+    List<Room> carveRooms(List<Room> rooms) {
+        for (Room room : rooms)
+            carveRoom(room);
+
+        m_Rooms = rooms;
+        return rooms;
+    }
+
+    private Room createRoom() {
+        // Randomly decide room shape
+        int shapeType = m_RoomRandom.nextInt(0, 3); // 0: Rectangle, 1: L-shape, 2: Polygon
+        Room room = switch (shapeType) {
+            case 1 -> // L-shape
+                createLShapedRoom();
+            case 2 -> // Random polygon
+                createPolygonRoom();
+            default -> // Rectangle
+                createRectangularRoom();
+        };
+
+        // L and polygon shapes can spill past the position they were placed at
+        return room.fits(m_Width, m_Height) ? room : null;
+    }
+
+    private Room createRectangularRoom() {
+        int roomWidth = m_RoomRandom.nextInt(4, 10); // Room width between 3 and 8
+        int roomHeight = m_RoomRandom.nextInt(4, 10); // Room height between 3 and 8
+        int roomX = m_RoomRandom.nextInt(1, m_Width - roomWidth - 1); // Ensure room fits in map
+        int roomY = m_RoomRandom.nextInt(1, m_Height - roomHeight - 1);
+
+        return new Room(roomX, roomY, roomWidth, roomHeight);
+    }
+
+    private Room createLShapedRoom() {
+        // Define dimensions for L-shaped rooms
+        int roomWidth1 = 5;
+        int roomHeight1 = 4;
+        int roomWidth2 = 4;
+        int roomHeight2 = 3;
+
+        int roomX = m_RoomRandom.nextInt(1, m_Width - roomWidth1 - roomWidth2 - 1); // Ensure room fits in map
+        int roomY = m_RoomRandom.nextInt(1, m_Height - Math.max(roomHeight1, roomHeight2) - 1);
+        int orientation = m_RoomRandom.nextInt(0, 4); // Random orientation
+
+        return new LRoom(roomX, roomY, roomWidth1, roomHeight1, roomWidth2, roomHeight2, orientation);
+    }
+
+    private Room createPolygonRoom() {
+        // Randomly decide the number of vertices for the polygon (between 3 and 8)
+        int vertexCount = m_RoomRandom.nextInt(3, 8);
+        List<Point> vertices = new ArrayList<>();
+
+        // Generate random angles and distances to create the polygon shape
+        double[] angles = new double[vertexCount];
+        double[] distances = new double[vertexCount];
+
+        for (int i = 0; i < vertexCount; i++) {
+            angles[i] = m_RoomRandom.nextDouble(0, Math.PI * 2); // Random angle
+            distances[i] = m_RoomRandom.nextDouble(3, 6); // Random distance
+        }
+
+        // Create vertices based on polar coordinates
+        for (int i = 0; i < vertexCount; i++) {
+            int x = (int) (distances[i] * Math.cos(angles[i]));
+            int y = (int) (distances[i] * Math.sin(angles[i]));
+            vertices.add(new Point(x, y));
+        }
+
+        // Offset the polygon to ensure it fits within the bounds of the map
+        int roomX = m_RoomRandom.nextInt(1, m_Width - 10);
+        int roomY = m_RoomRandom.nextInt(1, m_Height - 10);
+        for (Point p : vertices) {
+            p.x += roomX;
+            p.y += roomY;
+        }
+
+        // Create and return the PolygonRoom
+        return new PolygonRoom(roomX, roomY, vertices);
+    }
+
+    private boolean isTooCloseToExistingRooms(Room newRoom) {
+        return m_RoomIndex.overlaps(newRoom); // Only rooms in nearby buckets are tested
+    }
+
+    private void carveRoom(Room room) {
+        if (room instanceof PolygonRoom polygonRoom) {
+            // Scanline fill, clipped to the room's bounds like the rectangular rooms
+            m_Rasterizer.fill(m_Tiles, polygonRoom.vertices, room.x, room.y, room.x + room.width, room.y + room.height, TileType.FLOOR);
+        } else if (room instanceof LRoom lRoom) {
+            // Carve the L-shaped room
+            lRoom.carveLShape(m_Tiles);
+        } else {
+            // Default rectangular room carving
+            for (int x = room.x; x < room.x + room.width; ++x) {
+                for (int y = room.y; y < room.y + room.height; ++y) {
+                    m_Tiles.set(x, y, TileType.FLOOR); // Carve out the floor
+                }
+            }
+        }
+    }
+
+    void connectRooms(List<Room> rooms) {
+        m_Connectivity = new DisjointSet(rooms.size());
+        if (rooms.isEmpty()) return;
+
+        // Plan every corridor up front so A* only runs once per planned edge
+        CorridorPlanner planner = new CorridorPlanner(CORRIDOR_CANDIDATES, m_ExtraCorridors);
+        IntArray corridors = planner.plan(rooms, m_RoomIndex, m_CorridorRandom);
+
+        for (int i = 0; i < corridors.size; i += 2) {
+            Room roomA = rooms.get(corridors.get(i));
+            Room roomB = rooms.get(corridors.get(i + 1));
+            carveCorridorWithAStar(roomA, roomB);
+
+            roomA.connections++;
+            roomB.connections++;
+        }
+
+        // Nearest-neighbor candidates can miss far away clusters, so link any leftovers to the closest reachable room
+        Room root = rooms.get(0);
+        for (Room room : rooms) {
+            if (m_Connectivity.connected(root.id, room.id)) continue;
+
+            Room closest = findClosestConnectedRoom(room, root);
+            carveCorridorWithAStar(closest, room);
+
+            closest.connections++;
+            room.connections++;
+        }
+    }
+
+    private Room findClosestConnectedRoom(Room room, Room root) {
+        Room closest = m_RoomIndex.nearest(room.centerX(), room.centerY(),
+            other -> m_Connectivity.connected(root.id, other.id));
+        return closest != null ? closest : root;
+    }
+
+    private void carveCorridorWithAStar(Room a, Room b) {
+        // Use A* algorithm to find path from center of room A to center of room B
+        if (!aStar(a, b, m_Path)) return;
+
+        // Carve corridor along the path
+        for (int i = 0; i < m_Path.size; ++i) {
+            int node = m_Path.get(i);
+            m_Tiles.set(m_PathFinder.unpackX(node), m_PathFinder.unpackY(node), TileType.FLOOR); // Carve out the corridor as a floor
+        }
+
+        m_Connectivity.union(a.id, b.id);
+    }
+
+    private boolean aStar(Room start, Room goal, IntArray path) {
+        return m_PathFinder.findPath(start.centerX(), start.centerY(), goal.centerX(), goal.centerY(), this::isValidTile, path);
+    }
+
+    private boolean isValidTile(int x, int y) {
+        return m_Tiles.get(x, y) != TileType.WALL;
+    }
+
+    void setWalls() {
+        if (m_Scratch == null) m_Scratch = new TileGrid(m_Width, m_Height);
+
+        // Double-buffered so a freshly placed wall is never seen by a neighbor still being decided
+        m_Cellular.apply(m_Tiles, m_Scratch, MapGenerator::wallRule);
+
+        TileGrid previous = m_Tiles;
+        m_Tiles = m_Scratch;
+        m_Scratch = previous;
+
+        // The layout is final now, so neighbor masks are computed once here instead of while rendering
+        m_Cellular.forEachChunk(m_Tiles, m_Tiles::updateMasks);
+    }
+
+    private static byte wallRule(TileGrid tiles, int x, int y) {
+        byte id = tiles.getId(x, y);
+
+        // Check adjacent tiles to determine if this tile should be a wall
+        if (id == TileType.NONE.ordinal() && isAdjacentToFloor(tiles, x, y))
+            return (byte) TileType.WALL.ordinal(); // Set as wall
+
+        return id;
+    }
+
+    private static boolean isAdjacentToFloor(TileGrid tiles, int x, int y) {
+        // Check 4-directional neighbors for floor tiles
+        return (x > 0 && tiles.get(x - 1, y) == TileType.FLOOR) ||
+            (x < tiles.getWidth() - 1 && tiles.get(x + 1, y) == TileType.FLOOR) ||
+            (y > 0 && tiles.get(x, y - 1) == TileType.FLOOR) ||
+            (y < tiles.getHeight() - 1 && tiles.get(x, y + 1) == TileType.FLOOR);
+    }
+
+    public long getSeed() {
+        return m_Seed;
+    }
+
+    public int getWidth() {
+        return m_Width;
+    }
+
+    public int getHeight() {
+        return m_Height;
+    }
+
+    public TileGrid getTiles() {
+        return m_Tiles;
+    }
+
+    List<Room> getRooms() {
+        return m_Rooms;
+    }
+
+    /** @return true if every room can reach every other room through carved floor */
+    public boolean isFullyConnected() {
+        return m_Connectivity != null && m_Connectivity.count() <= 1;
+    }
+
+    /**
+     * Picks the level's base and accent colors from their own random stream. The stream is split from the seed afresh on
+     * every call, so wrapping the same generator twice gives the same colors.
+     */
+    void createPalette(Vector3 base, Vector3 accent) {
+        SplittableRandom random = new SplittableRandom(m_Seed).split();
+        base.set(random.nextFloat(), random.nextFloat(), random.nextFloat());
+        accent.set(base.x, base.y, random.nextFloat());
+    }
+}
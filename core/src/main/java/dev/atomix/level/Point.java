@@ -0,0 +1,11 @@
+package dev.atomix.level;
+
+/** A mutable integer vertex used by {@link PolygonRoom}. */
+class Point {
+    int x, y;
+
+    Point(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
+}
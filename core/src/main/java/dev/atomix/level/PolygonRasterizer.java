@@ -0,0 +1,81 @@
+package dev.atomix.level;
+
+import java.util.List;
+
+/**
+ * Fills polygons into a {@link TileGrid} one scanline at a time. Each row's edge crossings are computed once, sorted,
+ * and the spans between them are written directly, so carving costs O(rows * vertices + area) instead of a full
+ * point-in-polygon test for every tile of the bounding box.
+ * <p>
+ * Uses the even-odd rule with the same half-open crossing test as a classic ray cast towards -x: a tile at
+ * {@code (x, y)} is inside when an odd number of edges cross row {@code y} strictly left of {@code x}. Crossings are
+ * computed exactly rather than with integer division.
+ */
+class PolygonRasterizer {
+
+    private int[] m_Xs = new int[8], m_Ys = new int[8];
+    private double[] m_Crossings = new double[8];
+
+    /**
+     * Fills every tile of the polygon that lies inside the clip rectangle.
+     *
+     * @param minX inclusive left edge of the clip rectangle
+     * @param maxX exclusive right edge of the clip rectangle
+     */
+    void fill(TileGrid tiles, List<Point> vertices, int minX, int minY, int maxX, int maxY, Map.TileType type) {
+        int count = vertices.size();
+        if (count < 3) return;
+
+        // Copy the vertices once so the row loop only touches primitive arrays
+        if (m_Xs.length < count) {
+            m_Xs = new int[count];
+            m_Ys = new int[count];
+            m_Crossings = new double[count];
+        }
+        for (int i = 0; i < count; ++i) {
+            Point point = vertices.get(i);
+            m_Xs[i] = point.x;
+            m_Ys[i] = point.y;
+        }
+
+        minX = Math.max(minX, 0);
+        minY = Math.max(minY, 0);
+        maxX = Math.min(maxX, tiles.getWidth());
+        maxY = Math.min(maxY, tiles.getHeight());
+
+        for (int y = minY; y < maxY; ++y) {
+            int crossings = crossRow(count, y);
+
+            // Tiles strictly right of an odd crossing and up to (including) the next one are inside
+            for (int i = 0; i + 1 < crossings; i += 2) {
+                int from = Math.max(minX, (int) Math.floor(m_Crossings[i]) + 1);
+                int to = Math.min(maxX - 1, (int) Math.floor(m_Crossings[i + 1]));
+
+                for (int x = from; x <= to; ++x)
+                    tiles.set(x, y, type);
+            }
+        }
+    }
+
+    // Collects the sorted x positions where the polygon's edges cross row y
+    private int crossRow(int count, int y) {
+        int crossings = 0;
+
+        for (int i = 0, j = count - 1; i < count; j = i++) {
+            int yi = m_Ys[i], yj = m_Ys[j];
+            if ((yi < y && yj >= y) || (yj < y && yi >= y)) {
+                double x = m_Xs[i] + (double) (y - yi) / (yj - yi) * (m_Xs[j] - m_Xs[i]);
+
+                // Insertion sort, rows only ever have a handful of crossings
+                int k = crossings++;
+                while (k > 0 && m_Crossings[k - 1] > x) {
+                    m_Crossings[k] = m_Crossings[k - 1];
+                    k--;
+                }
+                m_Crossings[k] = x;
+            }
+        }
+
+        return crossings;
+    }
+}
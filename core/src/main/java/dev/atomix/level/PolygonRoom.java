@@ -0,0 +1,32 @@
+package dev.atomix.level;
+
+import java.util.List;
+
+/** A room carved from an arbitrary polygon; {@link Room} bounds are kept as the polygon's bounding box. */
+class PolygonRoom extends Room {
+    List<Point> vertices;
+
+    PolygonRoom(int x, int y, List<Point> vertices) {
+        super(x, y, 0, 0); // Width and height will be managed differently for polygons
+        this.vertices = vertices;
+        updateBounds(); // Calculate bounds for the polygon
+    }
+
+    // Method to update the room bounds based on vertices
+    private void updateBounds() {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+
+        for (Point p : vertices) {
+            minX = Math.min(minX, p.x);
+            minY = Math.min(minY, p.y);
+            maxX = Math.max(maxX, p.x);
+            maxY = Math.max(maxY, p.y);
+        }
+
+        // Set the bounds to be the actual dimensions of the polygon
+        this.x = minX;
+        this.y = minY;
+        this.width = maxX - minX;
+        this.height = maxY - minY;
+    }
+}
@@ -0,0 +1,44 @@
+package dev.atomix.level;
+
+/** A rectangular room, and the base type for every other room shape the generator carves. */
+class Room {
+    int id;
+    int x, y, width, height;
+    int connections;
+
+    Room(int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.connections = 0;
+    }
+
+    int centerX() {
+        return x + width / 2;
+    }
+
+    int centerY() {
+        return y + height / 2;
+    }
+
+    /** @return the exclusive right edge of every tile this room carves */
+    int right() {
+        return x + width;
+    }
+
+    /** @return the exclusive top edge of every tile this room carves */
+    int top() {
+        return y + height;
+    }
+
+    /** @return true if the room is carved entirely inside the map, leaving a one tile border */
+    boolean fits(int mapWidth, int mapHeight) {
+        return x >= 1 && y >= 1 && right() <= mapWidth - 1 && top() <= mapHeight - 1;
+    }
+
+    boolean intersects(Room other) {
+        return x < other.x + other.width && x + width > other.x &&
+            y < other.y + other.height && y + height > other.y;
+    }
+}
@@ -0,0 +1,116 @@
+package dev.atomix.level;
+
+import java.util.ArrayList;
+import java.util.function.Predicate;
+
+/**
+ * A uniform grid of buckets over the map, indexing rooms both by their full bounds (for overlap queries) and by their
+ * center (for nearest-room queries). Both queries only look at the buckets around the query, so they stay cheap as the
+ * room count grows.
+ */
+class RoomIndex {
+
+    private static final int CELL_SHIFT = 4; // 16x16 tiles per bucket
+
+    private final int m_Columns, m_Rows;
+    private final ArrayList<Room>[] m_Bounds;
+    private final ArrayList<Room>[] m_Centers;
+    private int m_Size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    RoomIndex(int width, int height) {
+        m_Columns = Math.max(1, (width >> CELL_SHIFT) + 1);
+        m_Rows = Math.max(1, (height >> CELL_SHIFT) + 1);
+        m_Bounds = new ArrayList[m_Columns * m_Rows];
+        m_Centers = new ArrayList[m_Columns * m_Rows];
+    }
+
+    void add(Room room) {
+        int minX = column(room.x), maxX = column(room.right() - 1);
+        int minY = row(room.y), maxY = row(room.top() - 1);
+        for (int cx = minX; cx <= maxX; ++cx)
+            for (int cy = minY; cy <= maxY; ++cy)
+                bucket(m_Bounds, cx, cy).add(room);
+
+        bucket(m_Centers, column(room.centerX()), row(room.centerY())).add(room);
+        m_Size++;
+    }
+
+    int size() {
+        return m_Size;
+    }
+
+    /** @return true if the room intersects any indexed room */
+    boolean overlaps(Room room) {
+        int minX = column(room.x), maxX = column(room.right() - 1);
+        int minY = row(room.y), maxY = row(room.top() - 1);
+        for (int cx = minX; cx <= maxX; ++cx) {
+            for (int cy = minY; cy <= maxY; ++cy) {
+                ArrayList<Room> rooms = m_Bounds[cx * m_Rows + cy];
+                if (rooms == null) continue;
+
+                for (int i = 0; i < rooms.size(); ++i)
+                    if (room.intersects(rooms.get(i))) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the indexed room whose center is closest (Manhattan distance) to the given tile, searching outward ring by
+     * ring and stopping once no closer room can exist. Ties go to the lowest room id so results are deterministic.
+     *
+     * @return the closest accepted room, or null if none passes the filter
+     */
+    Room nearest(int x, int y, Predicate<Room> filter) {
+        int originX = column(x), originY = row(y);
+        int maxRing = Math.max(Math.max(originX, m_Columns - 1 - originX), Math.max(originY, m_Rows - 1 - originY));
+
+        Room best = null;
+        int bestDistance = Integer.MAX_VALUE;
+
+        for (int ring = 0; ring <= maxRing; ++ring) {
+            // Anything in this ring or beyond is at least (ring - 1) buckets away on one axis
+            if (best != null && ((ring - 1) << CELL_SHIFT) > bestDistance) break;
+
+            for (int cx = originX - ring; cx <= originX + ring; ++cx) {
+                if (cx < 0 || cx >= m_Columns) continue;
+
+                // Only the outline of the ring, the inside was searched by earlier rings
+                int step = (cx == originX - ring || cx == originX + ring) ? 1 : Math.max(1, ring * 2);
+                for (int cy = originY - ring; cy <= originY + ring; cy += step) {
+                    if (cy < 0 || cy >= m_Rows) continue;
+
+                    ArrayList<Room> rooms = m_Centers[cx * m_Rows + cy];
+                    if (rooms == null) continue;
+
+                    for (int i = 0; i < rooms.size(); ++i) {
+                        Room room = rooms.get(i);
+                        int distance = Math.abs(room.centerX() - x) + Math.abs(room.centerY() - y);
+                        if (distance > bestDistance || (distance == bestDistance && room.id > best.id)) continue;
+                        if (!filter.test(room)) continue;
+
+                        best = room;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        return best;
+    }
+
+    private ArrayList<Room> bucket(ArrayList<Room>[] buckets, int cx, int cy) {
+        int index = cx * m_Rows + cy;
+        if (buckets[index] == null) buckets[index] = new ArrayList<>(4);
+        return buckets[index];
+    }
+
+    private int column(int x) {
+        return Math.min(m_Columns - 1, Math.max(0, x >> CELL_SHIFT));
+    }
+
+    private int row(int y) {
+        return Math.min(m_Rows - 1, Math.max(0, y >> CELL_SHIFT));
+    }
+}
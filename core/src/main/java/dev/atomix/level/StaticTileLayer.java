@@ -0,0 +1,241 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Bakes the tiles of a {@link Map} into {@link SpriteCache}s, one per {@link TileGrid.Chunk}, so the static level
+ * geometry is drawn with a handful of cached calls instead of being re-submitted tile by tile every frame. A chunk is
+ * baked the first time it is drawn and only rebuilt once its dirty flag is set and it is about to be drawn again.
+ * <p>
+ * Each chunk cache has its own small mesh, so rebaking a chunk only uploads that chunk. Caches come from a pool of at
+ * most {@link #MAX_CACHES}: when it runs out, the chunk drawn least recently gives its cache up. GPU memory therefore
+ * depends on how much of the level is on screen, not on the size of the level. A view with more chunks than the pool
+ * holds isn't drawn from caches at all, see {@link #fits}. All caches of a layer share one shader.
+ */
+class StaticTileLayer implements Disposable {
+
+    /** Chunk caches kept alive at most */
+    static final int MAX_CACHES = 48;
+
+    private static final int CHUNK_SPRITES = TileGrid.CHUNK_SIZE * TileGrid.CHUNK_SIZE;
+
+    // The shader SpriteCache builds for itself, which every cache would otherwise compile again
+    private static final String VERTEX_SHADER = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+        + "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+        + "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+        + "uniform mat4 u_projectionViewMatrix;\n"
+        + "varying vec4 v_color;\n"
+        + "varying vec2 v_texCoords;\n"
+        + "void main() {\n"
+        + "   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+        + "   v_color.a = v_color.a * (255.0/254.0);\n"
+        + "   v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+        + "   gl_Position = u_projectionViewMatrix * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+        + "}\n";
+    private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n"
+        + "precision mediump float;\n"
+        + "#endif\n"
+        + "varying vec4 v_color;\n"
+        + "varying vec2 v_texCoords;\n"
+        + "uniform sampler2D u_texture;\n"
+        + "void main() {\n"
+        + "  gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n"
+        + "}";
+
+    private final Map m_Map;
+
+    // Per chunk: its cache (null while it has none), how many tiles it holds and the frame it was last drawn in
+    private final SpriteCache[] m_Caches;
+    private final int[] m_Counts;
+    private final int[] m_LastDrawn;
+
+    private final IntArray m_Resident = new IntArray();
+    private final Array<SpriteCache> m_Free = new Array<>();
+    private int m_Created, m_Frame;
+    private int m_TileSize;
+    private SharedShader m_Shader;
+
+    StaticTileLayer(Map map) {
+        m_Map = map;
+
+        int chunks = map.getTiles().getChunkCount();
+        m_Caches = new SpriteCache[chunks];
+        m_Counts = new int[chunks];
+        m_LastDrawn = new int[chunks];
+    }
+
+    /**
+     * @return whether every chunk overlapping the view can have a cache at once. If not, drawing the view from caches
+     * would rebake chunks every frame, and the tiles are better sent through a batch.
+     */
+    static boolean fits(TileView view) {
+        if (view.isEmpty()) return true;
+
+        int columns = (view.maxX >> TileGrid.CHUNK_SHIFT) - (view.minX >> TileGrid.CHUNK_SHIFT) + 1;
+        int rows = (view.maxY >> TileGrid.CHUNK_SHIFT) - (view.minY >> TileGrid.CHUNK_SHIFT) + 1;
+        return columns * rows <= MAX_CACHES;
+    }
+
+    /**
+     * Draws only the chunks that overlap the view, rebuilding any of them that are dirty first. The view must
+     * {@link #fits fit} the pool.
+     *
+     * @return the number of cached draw calls issued
+     */
+    int render(Matrix4 projection, int tileSize, TileView view) {
+        if (view.isEmpty()) return 0;
+        if (!fits(view)) throw new IllegalArgumentException("View spans more chunks than the cache pool holds");
+
+        return render(projection, tileSize,
+            view.minX >> TileGrid.CHUNK_SHIFT, view.minY >> TileGrid.CHUNK_SHIFT,
+            view.maxX >> TileGrid.CHUNK_SHIFT, view.maxY >> TileGrid.CHUNK_SHIFT);
+    }
+
+    /** @return the number of chunks that currently hold a cache */
+    int getResidentCount() {
+        return m_Resident.size;
+    }
+
+    private int render(Matrix4 projection, int tileSize, int minCX, int minCY, int maxCX, int maxCY) {
+        TileGrid tiles = m_Map.getTiles();
+        if (tileSize != m_TileSize) {
+            m_TileSize = tileSize;
+            tiles.markAllDirty();
+        }
+
+        // Mark everything in view first, so taking a cache for one chunk never evicts another one about to be drawn
+        m_Frame++;
+        for (int cx = minCX; cx <= maxCX; ++cx)
+            for (int cy = minCY; cy <= maxCY; ++cy)
+                m_LastDrawn[tiles.getChunk(cx, cy).index] = m_Frame;
+
+        for (int cx = minCX; cx <= maxCX; ++cx) {
+            for (int cy = minCY; cy <= maxCY; ++cy) {
+                TileGrid.Chunk chunk = tiles.getChunk(cx, cy);
+                if (m_Caches[chunk.index] == null) {
+                    m_Caches[chunk.index] = obtain();
+                    m_Resident.add(chunk.index);
+                    rebuild(chunk, tileSize);
+                } else if (chunk.isDirty()) {
+                    rebuild(chunk, tileSize);
+                }
+            }
+        }
+
+        int calls = 0;
+        for (int cx = minCX; cx <= maxCX; ++cx) {
+            for (int cy = minCY; cy <= maxCY; ++cy) {
+                int index = tiles.getChunk(cx, cy).index;
+                if (m_Counts[index] == 0) continue; // Nothing in it is visible
+
+                SpriteCache cache = m_Caches[index];
+                cache.setProjectionMatrix(projection);
+                cache.begin();
+                cache.draw(0);
+                cache.end();
+                calls++;
+            }
+        }
+
+        return calls;
+    }
+
+    private SpriteCache obtain() {
+        if (m_Free.size > 0) return m_Free.pop();
+
+        // The view fits the pool, so once it is full some chunk outside the view always has a cache to give up
+        if (m_Created >= MAX_CACHES) return evict();
+
+        // Lazily created so caches and their shader are always built on the render thread
+        if (m_Shader == null) m_Shader = new SharedShader();
+        m_Created++;
+        return new SpriteCache(CHUNK_SPRITES, m_Shader, false);
+    }
+
+    // Takes the cache away from the chunk drawn longest ago, or returns null if every resident chunk is in this frame
+    private SpriteCache evict() {
+        int oldest = -1;
+        for (int i = 0; i < m_Resident.size; ++i) {
+            int index = m_Resident.get(i);
+            if (m_LastDrawn[index] == m_Frame) continue;
+            if (oldest == -1 || m_LastDrawn[index] < m_LastDrawn[m_Resident.get(oldest)]) oldest = i;
+        }
+        if (oldest == -1) return null;
+
+        int index = m_Resident.removeIndex(oldest);
+        SpriteCache cache = m_Caches[index];
+        m_Caches[index] = null;
+        return cache;
+    }
+
+    private void rebuild(TileGrid.Chunk chunk, int tileSize) {
+        SpriteCache cache = m_Caches[chunk.index];
+        cache.clear();
+        cache.beginCache();
+
+        int count = 0;
+        for (int x = chunk.x; x < chunk.x + chunk.width; ++x) {
+            for (int y = chunk.y; y < chunk.y + chunk.height; ++y) {
+                float shade = m_Map.getTileShade(x, y);
+                if (shade == 0.0f) continue; // Never seen
+
+                Map.TileType type = m_Map.getTile(x, y);
+                Vector3 color = m_Map.getTileColor(type);
+                TextureRegion region = m_Map.getTileRegion(type, x, y);
+
+                cache.setColor(color.x * shade, color.y * shade, color.z * shade, 1.0f);
+                cache.add(region, x * tileSize, y * tileSize, tileSize, tileSize);
+                count++;
+            }
+        }
+
+        cache.endCache();
+        m_Counts[chunk.index] = count;
+        chunk.clearDirty();
+    }
+
+    @Override
+    public void dispose() {
+        for (int i = 0; i < m_Resident.size; ++i) {
+            int index = m_Resident.get(i);
+            m_Caches[index].dispose();
+            m_Caches[index] = null;
+        }
+        for (SpriteCache cache : m_Free)
+            cache.dispose();
+
+        m_Resident.clear();
+        m_Free.clear();
+        m_Created = 0;
+        m_Map.getTiles().markAllDirty();
+
+        if (m_Shader != null) {
+            m_Shader.release();
+            m_Shader = null;
+        }
+    }
+
+    // SpriteCache disposes the shader it was given along with itself, so the layer keeps it alive until it goes too
+    private static final class SharedShader extends ShaderProgram {
+
+        SharedShader() {
+            super(VERTEX_SHADER, FRAGMENT_SHADER);
+            if (!isCompiled()) throw new IllegalArgumentException("Error compiling shader: " + getLog());
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        void release() {
+            super.dispose();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package dev.atomix.level;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Tile storage split into fixed {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} chunks, each backed by a {@code byte[]} of
+ * {@link Map.TileType} ordinals and carrying its own dirty flag. Chunks let caches, pathfinding and serialization
+ * work on a part of the level at a time.
+ * <p>
+ * Next to its tiles every chunk stores an 8-neighbor mask per tile, with a bit set for each neighbor of the same type,
+ * so renderers can pick connected tile art without looking at neighbors. Masks are computed once with
+ * {@link #updateMasks()} after the layout is final; from then on {@link #set} keeps the masks around a changed tile up to
+ * date. Until then writes skip that work, which keeps generation cheap.
+ * <p>
+ * Tiles take one byte each. Masks only get an array in chunks where they differ from tile to tile; a chunk whose masks
+ * are all the same, like the solid rock that fills most of a large level, stores that one value instead. A 4096x4096
+ * level is 16 MB of tiles plus 1 KB of masks per chunk that has something in it.
+ */
+public class TileGrid implements Iterable<TileGrid.Chunk> {
+
+    public static final int CHUNK_SHIFT = 5;
+    public static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    public static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // Neighbor bits of a tile mask, clockwise from the tile above
+    public static final int NORTH = 1, NORTH_EAST = 1 << 1, EAST = 1 << 2, SOUTH_EAST = 1 << 3;
+    public static final int SOUTH = 1 << 4, SOUTH_WEST = 1 << 5, WEST = 1 << 6, NORTH_WEST = 1 << 7;
+
+    private final int m_Width, m_Height;
+    private final int m_ChunksX, m_ChunksY;
+    private final Chunk[] m_Chunks;
+
+    public TileGrid(int width, int height) {
+        m_Width = width;
+        m_Height = height;
+        m_ChunksX = (width + CHUNK_MASK) >> CHUNK_SHIFT;
+        m_ChunksY = (height + CHUNK_MASK) >> CHUNK_SHIFT;
+        m_Chunks = new Chunk[m_ChunksX * m_ChunksY];
+
+        for (int cx = 0; cx < m_ChunksX; ++cx)
+            for (int cy = 0; cy < m_ChunksY; ++cy)
+                m_Chunks[cx * m_ChunksY + cy] = new Chunk(cx * m_ChunksY + cy, cx, cy);
+    }
+
+    public Map.TileType get(int x, int y) {
+        return Map.TileType.VALUES[getId(x, y)];
+    }
+
+    public byte getId(int x, int y) {
+        return chunkAt(x, y).tiles[local(x, y)];
+    }
+
+    /** @return the tile's neighbor mask, see {@link #NORTH} and the other direction bits */
+    public int getMask(int x, int y) {
+        Chunk chunk = chunkAt(x, y);
+        return (chunk.masks != null ? chunk.masks[local(x, y)] : chunk.uniformMask) & 0xFF;
+    }
+
+    /**
+     * Changes a tile, marking its chunk dirty if the value actually changed.
+     *
+     * @return true if the tile changed
+     */
+    public boolean set(int x, int y, Map.TileType type) {
+        Chunk chunk = chunkAt(x, y);
+        int index = local(x, y);
+        byte id = (byte) type.ordinal();
+        if (chunk.tiles[index] == id) return false;
+
+        chunk.tiles[index] = id;
+        chunk.dirty = true;
+
+        // The tile's own mask and its neighbors' masks may all change, possibly in other chunks
+        for (int nx = Math.max(0, x - 1); nx <= Math.min(m_Width - 1, x + 1); ++nx) {
+            for (int ny = Math.max(0, y - 1); ny <= Math.min(m_Height - 1, y + 1); ++ny) {
+                Chunk neighbor = chunkAt(nx, ny);
+                if (!neighbor.masked) continue;
+
+                int neighborIndex = local(nx, ny);
+                byte mask = computeMask(nx, ny);
+                if (neighbor.masks == null) {
+                    if (neighbor.uniformMask == mask) continue;
+                    neighbor.inflateMasks();
+                } else if (neighbor.masks[neighborIndex] == mask) {
+                    continue;
+                }
+
+                neighbor.masks[neighborIndex] = mask;
+                neighbor.dirty = true;
+            }
+        }
+        return true;
+    }
+
+    /** Sets every tile to the given type and marks every chunk dirty. */
+    public void fill(Map.TileType type) {
+        for (Chunk chunk : m_Chunks) {
+            Arrays.fill(chunk.tiles, (byte) type.ordinal());
+            chunk.dirty = true;
+        }
+        updateMasks();
+    }
+
+    /** Recomputes the neighbor mask of every tile. */
+    public void updateMasks() {
+        for (Chunk chunk : m_Chunks)
+            updateMasks(chunk);
+    }
+
+    /**
+     * Recomputes the neighbor masks of one chunk, reading tiles from its neighbors too. Different chunks can be updated
+     * in parallel as long as no tiles change meanwhile.
+     */
+    public void updateMasks(Chunk chunk) {
+        byte uniform = computeMask(chunk.x, chunk.y);
+        byte[] masks = null;
+        for (int x = chunk.x; x < chunk.x + chunk.width; ++x) {
+            for (int y = chunk.y; y < chunk.y + chunk.height; ++y) {
+                byte mask = computeMask(x, y);
+                if (masks == null) {
+                    if (mask == uniform) continue;
+
+                    // Only allocated once two masks differ, every tile before this one had the uniform mask
+                    masks = chunk.masks != null ? chunk.masks : chunk.allocateMasks();
+                    Arrays.fill(masks, uniform);
+                }
+                masks[local(x, y)] = mask;
+            }
+        }
+
+        chunk.masks = masks;
+        chunk.uniformMask = uniform;
+        chunk.masked = true;
+        chunk.dirty = true;
+    }
+
+    public int getWidth() {
+        return m_Width;
+    }
+
+    public int getHeight() {
+        return m_Height;
+    }
+
+    public int getChunksX() {
+        return m_ChunksX;
+    }
+
+    public int getChunksY() {
+        return m_ChunksY;
+    }
+
+    public int getChunkCount() {
+        return m_Chunks.length;
+    }
+
+    public Chunk getChunk(int index) {
+        return m_Chunks[index];
+    }
+
+    public Chunk getChunk(int cx, int cy) {
+        return m_Chunks[cx * m_ChunksY + cy];
+    }
+
+    public void markAllDirty() {
+        for (Chunk chunk : m_Chunks)
+            chunk.dirty = true;
+    }
+
+    @Override
+    public Iterator<Chunk> iterator() {
+        return new Iterator<>() {
+            private int m_Index;
+
+            @Override
+            public boolean hasNext() {
+                return m_Index < m_Chunks.length;
+            }
+
+            @Override
+            public Chunk next() {
+                if (m_Index >= m_Chunks.length) throw new NoSuchElementException();
+                return m_Chunks[m_Index++];
+            }
+        };
+    }
+
+    private Chunk chunkAt(int x, int y) {
+        return m_Chunks[(x >> CHUNK_SHIFT) * m_ChunksY + (y >> CHUNK_SHIFT)];
+    }
+
+    private byte computeMask(int x, int y) {
+        byte id = getId(x, y);
+        int mask = 0;
+
+        // Tiles past the edge of the grid never match
+        boolean north = y < m_Height - 1, east = x < m_Width - 1, south = y > 0, west = x > 0;
+        if (north && getId(x, y + 1) == id) mask |= NORTH;
+        if (north && east && getId(x + 1, y + 1) == id) mask |= NORTH_EAST;
+        if (east && getId(x + 1, y) == id) mask |= EAST;
+        if (south && east && getId(x + 1, y - 1) == id) mask |= SOUTH_EAST;
+        if (south && getId(x, y - 1) == id) mask |= SOUTH;
+        if (south && west && getId(x - 1, y - 1) == id) mask |= SOUTH_WEST;
+        if (west && getId(x - 1, y) == id) mask |= WEST;
+        if (north && west && getId(x - 1, y + 1) == id) mask |= NORTH_WEST;
+
+        return (byte) mask;
+    }
+
+    private static int local(int x, int y) {
+        return ((x & CHUNK_MASK) << CHUNK_SHIFT) | (y & CHUNK_MASK);
+    }
+
+    /** A {@value #CHUNK_SIZE}x{@value #CHUNK_SIZE} block of tiles. Chunks on the far edges are clipped to the grid. */
+    public class Chunk {
+        public final int index;
+        public final int cx, cy;
+        public final int x, y, width, height;
+
+        final byte[] tiles;
+        byte[] masks; // Null while every tile of the chunk has uniformMask
+        byte uniformMask;
+        boolean masked; // Whether the masks are current and kept up to date
+        boolean dirty;
+
+        Chunk(int index, int cx, int cy) {
+            this.index = index;
+            this.cx = cx;
+            this.cy = cy;
+            this.x = cx << CHUNK_SHIFT;
+            this.y = cy << CHUNK_SHIFT;
+            this.width = Math.min(CHUNK_SIZE, m_Width - x);
+            this.height = Math.min(CHUNK_SIZE, m_Height - y);
+            this.tiles = new byte[CHUNK_SIZE * CHUNK_SIZE];
+            this.dirty = true;
+        }
+
+        // Tiles are stored column by column, so a chunk clipped on the right only needs its own columns
+        byte[] allocateMasks() {
+            return new byte[width << CHUNK_SHIFT];
+        }
+
+        void inflateMasks() {
+            masks = allocateMasks();
+            Arrays.fill(masks, uniformMask);
+        }
+
+        /** Reads a tile using coordinates local to this chunk. */
+        public byte getId(int localX, int localY) {
+            return tiles[(localX << CHUNK_SHIFT) | localY];
+        }
+
+        public boolean isDirty() {
+            return dirty;
+        }
+
+        public void markDirty() {
+            dirty = true;
+        }
+
+        public void clearDirty() {
+            dirty = false;
+        }
+    }
+}
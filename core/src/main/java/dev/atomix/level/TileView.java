@@ -0,0 +1,41 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+
+/**
+ * The inclusive range of tiles that a camera can currently see, clamped to the bounds of a level.
+ */
+public class TileView {
+
+    public int minX, minY, maxX, maxY;
+
+    /**
+     * Computes the visible tile range from the camera's position, viewport and zoom. Rotation is not taken into account.
+     *
+     * @return this view for chaining
+     */
+    public TileView set(OrthographicCamera camera, int tileSize, int width, int height) {
+        float halfWidth = camera.viewportWidth * camera.zoom * 0.5f;
+        float halfHeight = camera.viewportHeight * camera.zoom * 0.5f;
+
+        return set(camera.position.x - halfWidth, camera.position.y - halfHeight,
+            camera.position.x + halfWidth, camera.position.y + halfHeight, tileSize, width, height);
+    }
+
+    /** Computes the tile range covering the given world-space rectangle. */
+    public TileView set(float left, float bottom, float right, float top, int tileSize, int width, int height) {
+        minX = Math.max(0, (int) Math.floor(left / tileSize));
+        minY = Math.max(0, (int) Math.floor(bottom / tileSize));
+        maxX = Math.min(width - 1, (int) Math.floor(right / tileSize));
+        maxY = Math.min(height - 1, (int) Math.floor(top / tileSize));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return minX > maxX || minY > maxY;
+    }
+
+    public int count() {
+        return isEmpty() ? 0 : (maxX - minX + 1) * (maxY - minY + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package dev.atomix.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A running total that any number of threads can add to without contending on a single field. */
+public class Counter implements Metric {
+
+    private final String m_Name;
+    private final LongAdder m_Value = new LongAdder();
+
+    Counter(String name) {
+        m_Name = name;
+    }
+
+    public void increment() {
+        m_Value.increment();
+    }
+
+    public void add(long amount) {
+        m_Value.add(amount);
+    }
+
+    public long get() {
+        return m_Value.sum();
+    }
+
+    @Override
+    public String getName() {
+        return m_Name;
+    }
+}
@@ -0,0 +1,94 @@
+package dev.atomix.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records a distribution of non-negative values into fixed log-linear buckets, in the style of HdrHistogram. Every
+ * power of two is split into {@value #SUB_BUCKETS} equal buckets, so any recorded value lands in a bucket no wider than
+ * about 3% of it, for the full {@code long} range, in a fixed 15 KB. Recording is a few atomic adds and never allocates,
+ * so it is cheap enough for per-frame and per-search values.
+ */
+public class Histogram implements Metric {
+
+    private static final int SUB_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final String m_Name;
+    private final AtomicLongArray m_Buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder m_Count = new LongAdder();
+    private final LongAdder m_Sum = new LongAdder();
+    private final LongAccumulator m_Max = new LongAccumulator(Math::max, 0);
+
+    Histogram(String name) {
+        m_Name = name;
+    }
+
+    /** Records a value, clamping negative values to 0. */
+    public void record(long value) {
+        if (value < 0) value = 0;
+
+        m_Buckets.incrementAndGet(index(value));
+        m_Count.increment();
+        m_Sum.add(value);
+        m_Max.accumulate(value);
+    }
+
+    public long getCount() {
+        return m_Count.sum();
+    }
+
+    public long getSum() {
+        return m_Sum.sum();
+    }
+
+    public long getMax() {
+        return m_Max.get();
+    }
+
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0.0 : (double) getSum() / count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the highest value in the bucket holding the given percentile, never above the recorded maximum, or 0 if
+     * nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            seen += m_Buckets.get(i);
+            if (seen >= rank) return Math.min(highestInBucket(i), getMax());
+        }
+        return getMax(); // Only reachable while other threads are still recording
+    }
+
+    @Override
+    public String getName() {
+        return m_Name;
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long highestInBucket(int index) {
+        if (index < SUB_BUCKETS) return index;
+
+        int shift = (index >>> SUB_BITS) - 1;
+        long lowest = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,6 @@
+package dev.atomix.metrics;
+
+/** Something recorded in a {@link MetricsRegistry}, identified by a dotted name such as {@code generation.walls}. */
+public interface Metric {
+    String getName();
+}
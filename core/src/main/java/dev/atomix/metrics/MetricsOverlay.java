@@ -0,0 +1,88 @@
+package dev.atomix.metrics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.Locale;
+
+/**
+ * Draws a summary of every metric in the top left corner of the screen. The text is rebuilt a few times a second rather
+ * than every frame, so showing the overlay barely moves the frame times it reports.
+ */
+public class MetricsOverlay implements Disposable {
+
+    private static final float REFRESH_INTERVAL = 0.5f;
+    private static final float MARGIN = 8.0f;
+
+    private final MetricsRegistry m_Registry;
+    private final StringBuilder m_Text = new StringBuilder();
+
+    private SpriteBatch m_Batch;
+    private BitmapFont m_Font;
+    private boolean m_Visible;
+    private float m_SinceRefresh = REFRESH_INTERVAL;
+
+    public MetricsOverlay(MetricsRegistry registry) {
+        m_Registry = registry;
+    }
+
+    public void toggle() {
+        m_Visible = !m_Visible;
+        m_SinceRefresh = REFRESH_INTERVAL; // Show current numbers straight away
+    }
+
+    public boolean isVisible() {
+        return m_Visible;
+    }
+
+    public void render(float delta) {
+        if (!m_Visible) return;
+
+        // Created on first use so a session that never opens the overlay never loads the font
+        if (m_Batch == null) {
+            m_Batch = new SpriteBatch();
+            m_Font = new BitmapFont();
+            m_Font.setColor(Color.WHITE);
+        }
+
+        m_SinceRefresh += delta;
+        if (m_SinceRefresh >= REFRESH_INTERVAL) {
+            m_SinceRefresh = 0.0f;
+            refresh();
+        }
+
+        m_Batch.getProjectionMatrix().setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        m_Batch.begin();
+        m_Font.draw(m_Batch, m_Text, MARGIN, Gdx.graphics.getHeight() - MARGIN);
+        m_Batch.end();
+    }
+
+    private void refresh() {
+        m_Text.setLength(0);
+        m_Text.append(Gdx.graphics.getFramesPerSecond()).append(" fps\n");
+
+        for (Metric metric : m_Registry.getMetrics()) {
+            if (metric instanceof Counter counter) {
+                m_Text.append(metric.getName()).append("  ").append(counter.get()).append('\n');
+            } else if (metric instanceof Timer timer) {
+                Histogram nanos = timer.getNanos();
+                m_Text.append(String.format(Locale.ROOT, "%s  n=%d  p50=%.2fms  p99=%.2fms  max=%.2fms%n", metric.getName(), nanos.getCount(),
+                    nanos.getValueAtPercentile(50) * 1.0e-6, nanos.getValueAtPercentile(99) * 1.0e-6, nanos.getMax() * 1.0e-6));
+            } else if (metric instanceof Histogram histogram) {
+                m_Text.append(String.format(Locale.ROOT, "%s  n=%d  p50=%d  p99=%d  max=%d%n", metric.getName(), histogram.getCount(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getMax()));
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        if (m_Batch != null) m_Batch.dispose();
+        if (m_Font != null) m_Font.dispose();
+        m_Batch = null;
+        m_Font = null;
+    }
+}
@@ -0,0 +1,40 @@
+package dev.atomix.metrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * Named counters, histograms and timers shared across threads. Looking a metric up goes through a map, so hot code
+ * should look its metrics up once and keep them in a field; recording into them is lock-free.
+ */
+public class MetricsRegistry {
+
+    private final ConcurrentSkipListMap<String, Metric> m_Metrics = new ConcurrentSkipListMap<>();
+
+    public Counter counter(String name) {
+        return get(name, Counter.class, Counter::new);
+    }
+
+    public Histogram histogram(String name) {
+        return get(name, Histogram.class, Histogram::new);
+    }
+
+    public Timer timer(String name) {
+        return get(name, Timer.class, Timer::new);
+    }
+
+    /** @return every registered metric, sorted by name */
+    public Collection<Metric> getMetrics() {
+        return Collections.unmodifiableCollection(m_Metrics.values());
+    }
+
+    private <T extends Metric> T get(String name, Class<T> type, Function<String, T> factory) {
+        Metric metric = m_Metrics.computeIfAbsent(name, factory);
+        if (!type.isInstance(metric))
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + metric.getClass().getSimpleName());
+
+        return type.cast(metric);
+    }
+}
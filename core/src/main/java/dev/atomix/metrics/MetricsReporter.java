@@ -0,0 +1,180 @@
+package dev.atomix.metrics;
+
+import dev.atomix.Game;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Periodically appends every metric in a registry to a file, as CSV rows or as one JSON object per line. Histograms
+ * and timers are cumulative since startup; timer values are written in milliseconds.
+ * <p>
+ * The report text is built on the thread calling {@link #update(float)}, the file is written on an executor so the
+ * render thread never waits on disk. Writes are chained, so reports never interleave.
+ * <p>
+ * The first report of a run truncates the file. Once the file would grow past its size limit, it is moved aside to
+ * {@code <file>.1}, replacing the one before, and a new file is started. At most twice the limit is ever kept on disk.
+ */
+public class MetricsReporter {
+
+    public enum Format { CSV, JSON }
+
+    /** Default size limit of the report file, in bytes */
+    public static final long DEFAULT_MAX_BYTES = 4L * 1024 * 1024;
+
+    private static final String CSV_HEADER = "time,name,type,count,mean,p50,p90,p99,max\n";
+
+    private final MetricsRegistry m_Registry;
+    private final Path m_Path;
+    private final Format m_Format;
+    private final float m_Interval;
+    private final Executor m_Executor;
+    private final long m_MaxBytes;
+
+    private CompletableFuture<Void> m_Pending = CompletableFuture.completedFuture(null);
+    private float m_Elapsed;
+
+    // Bytes in the current file, only touched by the chained writes. Zero until the first report of this run
+    private long m_Written;
+
+    /** @param interval seconds between reports */
+    public MetricsReporter(MetricsRegistry registry, Path path, Format format, float interval, Executor executor) {
+        this(registry, path, format, interval, DEFAULT_MAX_BYTES, executor);
+    }
+
+    /**
+     * @param interval seconds between reports
+     * @param maxBytes how large the file may grow before it is rotated
+     */
+    public MetricsReporter(MetricsRegistry registry, Path path, Format format, float interval, long maxBytes, Executor executor) {
+        m_Registry = registry;
+        m_Path = path;
+        m_Format = format;
+        m_Interval = interval;
+        m_Executor = executor;
+        m_MaxBytes = maxBytes;
+    }
+
+    /** Advances the report clock, writing a report once the interval has passed. */
+    public void update(float delta) {
+        m_Elapsed += delta;
+        if (m_Elapsed < m_Interval) return;
+
+        m_Elapsed = 0.0f;
+        report();
+    }
+
+    /** Writes a report right away. */
+    public void report() {
+        String text = m_Format == Format.CSV ? toCsv(System.currentTimeMillis()) : toJson(System.currentTimeMillis());
+
+        m_Pending = m_Pending.thenRunAsync(() -> {
+            try {
+                write(text.getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                Game.LOGGER.error("Failed to write metrics to " + m_Path, e);
+            }
+        }, m_Executor);
+    }
+
+    /** Writes a final report and waits for every pending write to reach the file. */
+    public void flush() {
+        report();
+        m_Pending.join();
+    }
+
+    /** @return the file that holds the reports from before the last rotation */
+    public Path getPreviousPath() {
+        return m_Path.resolveSibling(m_Path.getFileName() + ".1");
+    }
+
+    private void write(byte[] report) throws IOException {
+        if (m_Written > 0 && m_Written + report.length > m_MaxBytes) {
+            Files.move(m_Path, getPreviousPath(), StandardCopyOption.REPLACE_EXISTING);
+            m_Written = 0;
+        }
+
+        // A new file, either for this run or after a rotation, starts over with the header
+        if (m_Written == 0) {
+            byte[] header = m_Format == Format.CSV ? CSV_HEADER.getBytes(StandardCharsets.UTF_8) : new byte[0];
+            Files.write(m_Path, header, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            m_Written = header.length;
+        }
+
+        Files.write(m_Path, report, StandardOpenOption.APPEND);
+        m_Written += report.length;
+    }
+
+    String toCsv(long time) {
+        StringBuilder text = new StringBuilder();
+        for (Metric metric : m_Registry.getMetrics()) {
+            text.append(time).append(',').append(metric.getName()).append(',');
+
+            if (metric instanceof Counter counter) {
+                text.append("counter,").append(counter.get()).append(",,,,,");
+            } else if (metric instanceof Timer timer) {
+                text.append("timer,");
+                appendCsv(text, timer.getNanos(), 1.0e-6);
+            } else if (metric instanceof Histogram histogram) {
+                text.append("histogram,");
+                appendCsv(text, histogram, 1.0);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+
+    String toJson(long time) {
+        StringBuilder text = new StringBuilder();
+        text.append("{\"time\":").append(time).append(",\"metrics\":{");
+
+        boolean first = true;
+        for (Metric metric : m_Registry.getMetrics()) {
+            if (!first) text.append(',');
+            first = false;
+
+            // Metric names are plain dotted identifiers, they never need escaping
+            text.append('"').append(metric.getName()).append("\":{");
+            if (metric instanceof Counter counter) {
+                text.append("\"type\":\"counter\",\"value\":").append(counter.get());
+            } else if (metric instanceof Timer timer) {
+                text.append("\"type\":\"timer\",");
+                appendJson(text, timer.getNanos(), 1.0e-6);
+            } else if (metric instanceof Histogram histogram) {
+                text.append("\"type\":\"histogram\",");
+                appendJson(text, histogram, 1.0);
+            }
+            text.append('}');
+        }
+        return text.append("}}\n").toString();
+    }
+
+    private static void appendCsv(StringBuilder text, Histogram histogram, double scale) {
+        text.append(histogram.getCount()).append(',')
+            .append(format(histogram.getMean() * scale)).append(',')
+            .append(format(histogram.getValueAtPercentile(50) * scale)).append(',')
+            .append(format(histogram.getValueAtPercentile(90) * scale)).append(',')
+            .append(format(histogram.getValueAtPercentile(99) * scale)).append(',')
+            .append(format(histogram.getMax() * scale));
+    }
+
+    private static void appendJson(StringBuilder text, Histogram histogram, double scale) {
+        text.append("\"count\":").append(histogram.getCount())
+            .append(",\"mean\":").append(format(histogram.getMean() * scale))
+            .append(",\"p50\":").append(format(histogram.getValueAtPercentile(50) * scale))
+            .append(",\"p90\":").append(format(histogram.getValueAtPercentile(90) * scale))
+            .append(",\"p99\":").append(format(histogram.getValueAtPercentile(99) * scale))
+            .append(",\"max\":").append(format(histogram.getMax() * scale));
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
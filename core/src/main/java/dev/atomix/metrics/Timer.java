@@ -0,0 +1,53 @@
+package dev.atomix.metrics;
+
+import java.util.function.Supplier;
+
+/** A {@link Histogram} of durations in nanoseconds. */
+public class Timer implements Metric {
+
+    private final Histogram m_Nanos;
+
+    Timer(String name) {
+        m_Nanos = new Histogram(name);
+    }
+
+    /** @return a start time to pass to {@link #stop(long)} */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void stop(long start) {
+        m_Nanos.record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        m_Nanos.record(nanos);
+    }
+
+    public void time(Runnable action) {
+        long start = start();
+        try {
+            action.run();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public <T> T time(Supplier<T> action) {
+        long start = start();
+        try {
+            return action.get();
+        } finally {
+            stop(start);
+        }
+    }
+
+    public Histogram getNanos() {
+        return m_Nanos;
+    }
+
+    @Override
+    public String getName() {
+        return m_Nanos.getName();
+    }
+}
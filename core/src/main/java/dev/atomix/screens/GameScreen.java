@@ -1,12 +1,31 @@
 package dev.atomix.screens;
 
+import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
 import dev.atomix.Assets;
+import dev.atomix.Game;
+import dev.atomix.entity.AIComponent;
+import dev.atomix.entity.EntityWorld;
+import dev.atomix.entity.Mappers;
+import dev.atomix.entity.TurnScheduler;
+import dev.atomix.level.AutoTileSet;
+import dev.atomix.level.DijkstraMap;
+import dev.atomix.level.FieldOfView;
+import dev.atomix.level.LevelCache;
+import dev.atomix.level.LevelPipeline;
 import dev.atomix.level.Map;
+import dev.atomix.level.TileGrid;
+import dev.atomix.metrics.Histogram;
+
+import java.util.concurrent.ThreadLocalRandom;
 
 public class GameScreen extends ScreenImpl {
 
@@ -14,45 +33,252 @@ public class GameScreen extends ScreenImpl {
         super(assets);
     }
 
+    private static final int TILE_SIZE = 16;
+    private static final int FLOORS_AHEAD = 2;
+    private static final int FLOORS_CACHED = 8;
+    private static final int VIEW_RADIUS = 12;
+    private static final int MONSTERS = 24;
+    private static final int WAKE_RADIUS = 2 * VIEW_RADIUS;
+    private static final Color PLAYER_TINT = Color.GOLD;
+
+    private static final Histogram DRAW_CALLS = Game.METRICS.histogram("render.draw_calls");
+
+    private final OrthographicCamera camera = new OrthographicCamera();
+
+    // Cached maps keep these regions, so they are pointed at the freshly loaded atlas on every show()
+    private final TextureRegion empty = new TextureRegion(), floor = new TextureRegion(), wall = new TextureRegion();
+
+    // The wall block of the atlas: capped on top, plain and capped on the bottom, each with a left end, two middles and a right end
+    private final TextureRegion[][] walls = createRegions(3, 4);
+    private final AutoTileSet wallTiles = new AutoTileSet(wall, this::selectWall);
+
+    // Chosen once, so coming back to this screen resumes the same run instead of generating a new one
+    private final long runSeed = ThreadLocalRandom.current().nextLong();
+    private int floorIndex;
+
     private SpriteBatch batch = null;
+    private LevelCache levels;
+    private LevelPipeline pipeline;
     private Map map;
+    private DijkstraMap goals;
+    private EntityWorld entities;
+    private Entity player;
+    private boolean descending;
+    private int viewerX, viewerY;
+
+    /**
+     * Queues everything {@link #show()} needs without blocking: the tile atlas and the generation of the current floor.
+     * Safe to call more than once.
+     */
+    public void prepare() {
+        acquire("tiles", "textures/tiles.png", Texture.class);
+
+        if(levels == null) levels = new LevelCache(FLOORS_CACHED, Gdx.files.local("levels").file().toPath(), wall, empty, floor);
+        if(pipeline == null) {
+            pipeline = new LevelPipeline(runSeed, floorIndex,
+                Gdx.graphics.getWidth() / 8, Gdx.graphics.getHeight() / 8, FLOORS_AHEAD,
+                levels::getAsync, Game.GetWorkers());
+        }
+    }
+
+    /** @return true once {@link #show()} can run without waiting on the atlas or the first floor */
+    public boolean isPrepared() {
+        return pipeline != null && pipeline.isReady() && isLoaded("tiles");
+    }
+
+    /** @return why the floors stopped generating, or null if nothing went wrong */
+    public Throwable getFailure() {
+        return pipeline == null ? null : pipeline.getFailure();
+    }
 
     @Override
     public void show() {
-        load("tiles", "textures/tiles.png", Texture.class);
-        finishLoading();
+        // The loading screen has normally prepared everything already, so neither of these waits
+        prepare();
+        finishLoading("tiles");
 
         if(batch == null) batch = new SpriteBatch();
+        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
 
         Texture atlas = get("tiles", Texture.class);
 
-        TextureRegion empty, floor, wall;
-        empty = new TextureRegion(atlas, 0,  0, 16, 16);
-        floor = new TextureRegion(atlas, 0, 16, 16, 16);
-        wall = new TextureRegion(atlas, 16, 16, 16, 16);
+        empty.setTexture(atlas);
+        floor.setTexture(atlas);
+        wall.setTexture(atlas);
+        empty.setRegion(0,  0, 16, 16);
+        floor.setRegion(0, 16, 16, 16);
+        wall.setRegion(16, 16, 16, 16);
+        for(int row = 0; row < walls.length; ++row) {
+            for(int column = 0; column < walls[row].length; ++column) {
+                walls[row][column].setTexture(atlas);
+                walls[row][column].setRegion(16 + column * 16, row * 16, 16, 16);
+            }
+        }
 
-        map = new Map(Gdx.graphics.getWidth() / 8, Gdx.graphics.getHeight() / 8, wall, empty, floor);
+        enter(pipeline.take());
+        descending = false;
     }
 
     @Override
     public void render(float delta) {
-        batch.begin();
-        map.render(batch, 16);
-        batch.end();
+        if(Gdx.input.isKeyJustPressed(Input.Keys.PERIOD)) descending = true;
+        if(descending) descend();
+
+        if(Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) move(-1, 0);
+        if(Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) move(1, 0);
+        if(Gdx.input.isKeyJustPressed(Input.Keys.DOWN)) move(0, -1);
+        if(Gdx.input.isKeyJustPressed(Input.Keys.UP)) move(0, 1);
+
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+
+        DRAW_CALLS.record(map.renderStatic(camera, TILE_SIZE, batch));
+        entities.render(delta);
+    }
+
+    private void descend() {
+        // Keep showing the current floor until the next one has finished generating
+        Map next = pipeline.poll();
+        if(next == null) {
+            // Already logged by the pipeline, the next floor is never coming so stay on this one
+            if(pipeline.getFailure() != null) descending = false;
+            return;
+        }
+
+        map.dispose();
+        enter(next);
+        floorIndex++;
+        descending = false;
+    }
+
+    private void enter(Map next) {
+        map = next;
+
+        map.setWallTiles(wallTiles);
+
+        // Cached floors keep their field of view, in memory and on disk, so a revisited floor remembers what was explored
+        if(map.getFieldOfView() == null) map.setFieldOfView(new FieldOfView(map.getTiles()));
+
+        // Start on the floor tile closest to the middle of the level
+        int best = Integer.MAX_VALUE;
+        for(int x = 0; x < map.getWidth(); ++x) {
+            for(int y = 0; y < map.getHeight(); ++y) {
+                int distance = Math.abs(x - map.getWidth() / 2) + Math.abs(y - map.getHeight() / 2);
+                if(distance >= best || map.getTile(x, y) != Map.TileType.FLOOR) continue;
+
+                best = distance;
+                viewerX = x;
+                viewerY = y;
+            }
+        }
+
+        map.getFieldOfView().compute(viewerX, viewerY, VIEW_RADIUS);
+
+        // Monsters chase the player through one shared distance field
+        goals = new DijkstraMap(map.getTiles());
+        goals.setGoal(viewerX, viewerY);
+        if(entities != null) entities.dispose();
+        entities = new EntityWorld(map.getTiles(), goals, map.getSeed(), WAKE_RADIUS, batch, TILE_SIZE);
+        entities.setFieldOfView(map.getFieldOfView());
+        spawnMonsters();
+
+        player = entities.spawnPlayer(viewerX, viewerY, floor);
+        Mappers.RENDER.get(player).tint.set(PLAYER_TINT);
+        follow();
+    }
+
+    private void spawnMonsters() {
+        RandomXS128 random = new RandomXS128(map.getSeed());
+        int spawned = 0;
+
+        // Bounded, so a level with hardly any floor out of sight just gets fewer monsters
+        for(int attempt = 0; spawned < MONSTERS && attempt < MONSTERS * 256; ++attempt) {
+            int x = random.nextInt(map.getWidth()), y = random.nextInt(map.getHeight());
+            if(map.getTile(x, y) != Map.TileType.FLOOR || goals.getDistance(x, y) <= VIEW_RADIUS) continue;
+
+            // Every third monster is a slow wanderer, acting every other turn
+            boolean wanders = spawned % 3 == 0;
+            Mappers.RENDER.get(entities.spawnMonster(x, y, floor,
+                wanders ? AIComponent.Behavior.WANDER : AIComponent.Behavior.CHASE, VIEW_RADIUS,
+                wanders ? 2 * TurnScheduler.NORMAL_DELAY : TurnScheduler.NORMAL_DELAY)).tint.set(Color.SCARLET);
+            spawned++;
+        }
+    }
+
+    private TextureRegion selectWall(int mask) {
+        boolean top = (mask & TileGrid.NORTH) == 0, bottom = (mask & TileGrid.SOUTH) == 0;
+        boolean left = (mask & TileGrid.WEST) == 0, right = (mask & TileGrid.EAST) == 0;
+
+        int row = top ? 0 : bottom ? 2 : 1;
+        int column = left && !right ? 0 : right && !left ? 3 : 1 + (Integer.bitCount(mask) & 1); // Alternate the middles
+        return walls[row][column];
+    }
+
+    private static TextureRegion[][] createRegions(int rows, int columns) {
+        TextureRegion[][] regions = new TextureRegion[rows][columns];
+        for(TextureRegion[] row : regions)
+            for(int column = 0; column < columns; ++column)
+                row[column] = new TextureRegion();
+        return regions;
+    }
+
+    private void move(int dx, int dy) {
+        int x = viewerX + dx, y = viewerY + dy;
+        if(x < 0 || y < 0 || x >= map.getWidth() || y >= map.getHeight() || map.getTile(x, y) != Map.TileType.FLOOR) return;
+
+        goals.moveGoal(viewerX, viewerY, x, y);
+        viewerX = x;
+        viewerY = y;
+        entities.move(player, x, y);
+        map.getFieldOfView().compute(viewerX, viewerY, VIEW_RADIUS);
+        entities.turn(viewerX, viewerY);
+        follow();
+    }
+
+    private void follow() {
+        follow(camera, viewerX, viewerY, TILE_SIZE, map.getWidth(), map.getHeight());
+    }
+
+    /**
+     * Centres the camera on a tile, but never shows past the edges of the level: near an edge the camera stops and the
+     * tile moves off centre instead. Along an axis where the whole level fits on screen, the level is centred.
+     */
+    static void follow(OrthographicCamera camera, int tileX, int tileY, int tileSize, int width, int height) {
+        camera.position.set(
+            clamp((tileX + 0.5f) * tileSize, camera.viewportWidth * camera.zoom * 0.5f, width * tileSize),
+            clamp((tileY + 0.5f) * tileSize, camera.viewportHeight * camera.zoom * 0.5f, height * tileSize),
+            0.0f);
+    }
+
+    private static float clamp(float center, float halfView, float levelSize) {
+        if(levelSize <= 2.0f * halfView) return levelSize * 0.5f;
+        return Math.max(halfView, Math.min(levelSize - halfView, center));
     }
 
     @Override
     public void resize(int width, int height) {
-
+        camera.setToOrtho(false, width, height);
+        if(map != null) follow();
     }
 
     @Override
     public void hide() {
-        clear();
+        if(pipeline != null) pipeline.dispose();
+        if(map != null) map.dispose();
+        if(entities != null) entities.dispose();
+        pipeline = null;
+        map = null;
+        entities = null;
+        player = null;
+        releaseAll();
     }
 
     @Override
     public void dispose() {
+        if(pipeline != null) pipeline.dispose();
+        if(map != null) map.dispose();
+        if(entities != null) entities.dispose();
+        if(levels != null) levels.dispose();
         if(batch != null) batch.dispose();
     }
 }
@@ -0,0 +1,82 @@
+package dev.atomix.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import dev.atomix.Assets;
+import dev.atomix.Game;
+
+/**
+ * Gets the game screen ready without ever blocking the render thread. Each frame it loads queued assets for a few
+ * milliseconds while the first floor generates on the workers, draws a progress bar, and only switches to the game once
+ * both are done.
+ */
+public class LoadingScreen extends ScreenImpl {
+
+    // Leaves room in a 60 Hz frame for everything else
+    private static final int FRAME_BUDGET_MILLIS = 8;
+    private static final float BAR_WIDTH = 0.5f, BAR_HEIGHT = 12.0f;
+
+    private final GameScreen target;
+    private final String targetName;
+    private final OrthographicCamera camera = new OrthographicCamera();
+
+    private ShapeRenderer shapes = null;
+
+    /** @param targetName the name the target screen is registered under, switched to once it is prepared */
+    public LoadingScreen(Assets assets, GameScreen target, String targetName) {
+        super(assets);
+        this.target = target;
+        this.targetName = targetName;
+    }
+
+    @Override
+    public void show() {
+        if(shapes == null) shapes = new ShapeRenderer();
+        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+
+        target.prepare();
+    }
+
+    @Override
+    public void render(float delta) {
+        // Waiting any longer would spin forever, so give up with the reason instead
+        if(target.getFailure() != null) throw new GdxRuntimeException("Failed to prepare " + targetName, target.getFailure());
+
+        boolean loaded = processAssets(FRAME_BUDGET_MILLIS);
+        if(loaded && target.isPrepared()) {
+            Game.SetScreen(targetName);
+            return;
+        }
+
+        // Assets and the floor are each half of the bar; the floor has no progress of its own until it is done
+        float progress = (loadingProgress() + (target.isPrepared() ? 1.0f : 0.0f)) * 0.5f;
+        float width = camera.viewportWidth * BAR_WIDTH;
+        float x = (camera.viewportWidth - width) * 0.5f, y = (camera.viewportHeight - BAR_HEIGHT) * 0.5f;
+
+        camera.update();
+        shapes.setProjectionMatrix(camera.combined);
+        shapes.begin(ShapeRenderer.ShapeType.Filled);
+        shapes.setColor(0.3f, 0.3f, 0.35f, 1.0f);
+        shapes.rect(x, y, width, BAR_HEIGHT);
+        shapes.setColor(0.8f, 0.8f, 0.85f, 1.0f);
+        shapes.rect(x, y, width * progress, BAR_HEIGHT);
+        shapes.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void hide() {
+
+    }
+
+    @Override
+    public void dispose() {
+        if(shapes != null) shapes.dispose();
+    }
+}
@@ -9,6 +9,9 @@ import java.util.Map;
 /**
  * A {@link Screen} implementation that takes in an {@link com.badlogic.gdx.assets.AssetManager} wrapper class and
  * gives select capabilities over to the Screen.
+ * <p>
+ * Each screen holds at most one reference per asset name, so acquiring again on every {@link #show()} is harmless, and
+ * {@link #releaseAll()} on hide gives back only what this screen took. Assets other screens still use stay loaded.
  */
 public abstract class ScreenImpl implements Screen {
 
@@ -30,20 +33,26 @@ public abstract class ScreenImpl implements Screen {
         // Optional support
     }
 
-    protected <T> void load(String name, String path, Class<T> type) {
+    /** Takes a reference to an asset under a name, unless this screen already holds it. */
+    protected <T> void acquire(String name, String path, Class<T> type) {
+        String held = m_AssetPaths.get(name);
+        if(path.equals(held)) return;
+        if(held != null) release(name);
+
         m_AssetPaths.put(name, path);
-        m_Assets.load(path, type);
+        m_Assets.acquire(path, type);
     }
 
-    protected void unload(String name) {
-        if(!m_AssetPaths.containsKey(name)) return;
-
-        m_Assets.unload(m_AssetPaths.get(name));
-        m_AssetPaths.remove(name);
+    protected void release(String name) {
+        String path = m_AssetPaths.remove(name);
+        if(path != null) m_Assets.release(path);
     }
 
-    protected void clear() {
-        m_Assets.clear();
+    /** Gives back every asset this screen acquired. */
+    protected void releaseAll() {
+        for(String path : m_AssetPaths.values())
+            m_Assets.release(path);
+
         m_AssetPaths.clear();
     }
 
@@ -51,6 +60,12 @@ public abstract class ScreenImpl implements Screen {
         m_Assets.finishLoading();
     }
 
+    /** Blocks until one of this screen's assets has loaded. Returns at once if it is still resident. */
+    protected void finishLoading(String name) {
+        if(!m_AssetPaths.containsKey(name)) return;
+        m_Assets.finishLoading(m_AssetPaths.get(name));
+    }
+
     protected float loadingProgress() {
         return m_Assets.getProgress();
     }
@@ -59,6 +74,15 @@ public abstract class ScreenImpl implements Screen {
         return m_Assets.update();
     }
 
+    /** Loads queued assets for up to the given time, so the frame still gets presented. */
+    protected boolean processAssets(int millis) {
+        return m_Assets.update(millis);
+    }
+
+    protected boolean isLoaded(String name) {
+        return m_AssetPaths.containsKey(name) && m_Assets.isLoaded(m_AssetPaths.get(name));
+    }
+
     protected boolean finishedLoading() {
         return m_Assets.isFinished();
     }
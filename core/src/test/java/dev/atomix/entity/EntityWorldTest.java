@@ -0,0 +1,41 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import dev.atomix.level.DijkstraMap;
+import dev.atomix.level.Map;
+import dev.atomix.level.TileGrid;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that disposing an {@link EntityWorld}, as the game does when it leaves a floor, takes every entity out of the
+ * engine, the occupancy index and the turn scheduler.
+ */
+class EntityWorldTest {
+
+    @Test
+    void disposeLetsGoOfEveryEntity() {
+        TileGrid tiles = new TileGrid(64, 64);
+        tiles.fill(Map.TileType.FLOOR);
+        DijkstraMap goals = new DijkstraMap(tiles);
+        goals.setGoal(10, 10);
+        EntityWorld world = new EntityWorld(tiles, goals, 1L, 16, null, 16);
+        TextureRegion region = new TextureRegion();
+
+        Entity player = world.spawnPlayer(10, 10, region);
+        for (int i = 0; i < 20; ++i)
+            world.spawnMonster(20 + i, 30, region, AIComponent.Behavior.WANDER, 8, TurnScheduler.NORMAL_DELAY);
+        world.turn(10, 10);
+        assertEquals(21, world.getEntityCount());
+        assertEquals(20, world.getScheduler().getActiveCount() + world.getScheduler().getDormantCount());
+
+        world.dispose();
+        assertEquals(0, world.getEntityCount());
+        assertEquals(0, world.getOccupancy().size());
+        assertEquals(0, world.getScheduler().getActiveCount() + world.getScheduler().getDormantCount());
+        assertTrue(world.getOccupancy().isEmpty(10, 10));
+        assertNull(Mappers.POSITION.get(player)); // Back in the pool, its components reset and removed
+    }
+}
@@ -0,0 +1,135 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the queries of {@link OccupancyGrid} with a scan over every entity, while entities are added, moved and
+ * removed at random, including many stacked on one tile.
+ */
+class OccupancyGridTest {
+
+    private static final int WIDTH = 48, HEIGHT = 40;
+
+    @Test
+    void queriesMatchAScanOverEveryEntity() {
+        OccupancyGrid grid = new OccupancyGrid(WIDTH, HEIGHT);
+        SplittableRandom random = new SplittableRandom(11L);
+        List<Entity> entities = new ArrayList<>();
+
+        // More than the initial slot capacity, so the slot arrays grow along the way
+        for (int step = 0; step < 4000; ++step) {
+            int operation = entities.isEmpty() ? 0 : random.nextInt(4);
+            if (operation == 0 || (operation == 1 && entities.size() < 400)) {
+                Entity entity = entity(random.nextInt(WIDTH), random.nextInt(HEIGHT));
+                grid.add(entity);
+                entities.add(entity);
+            } else if (operation == 1) {
+                grid.remove(entities.remove(random.nextInt(entities.size())));
+            } else {
+                grid.move(entities.get(random.nextInt(entities.size())), random.nextInt(WIDTH), random.nextInt(HEIGHT));
+            }
+
+            if (step % 50 != 0) continue;
+            assertEquals(entities.size(), grid.size());
+
+            // Rectangles partly off the grid are clipped
+            int minX = random.nextInt(-5, WIDTH), minY = random.nextInt(-5, HEIGHT);
+            int maxX = minX + random.nextInt(20), maxY = minY + random.nextInt(20);
+            assertQuery(rect(entities, minX, minY, maxX, maxY), out -> grid.queryRect(minX, minY, maxX, maxY, out));
+
+            int x = random.nextInt(WIDTH), y = random.nextInt(HEIGHT), radius = random.nextInt(12);
+            assertQuery(radius(entities, x, y, radius), out -> grid.queryRadius(x, y, radius, out));
+            assertQuery(rect(entities, x, y, x, y), out -> grid.query(x, y, out));
+            assertEquals(rect(entities, x, y, x, y).size(), grid.count(x, y));
+            assertEquals(rect(entities, x, y, x, y).isEmpty(), grid.isEmpty(x, y));
+        }
+    }
+
+    @Test
+    void entitiesStackOnOneTile() {
+        OccupancyGrid grid = new OccupancyGrid(WIDTH, HEIGHT);
+        List<Entity> stack = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            Entity entity = entity(7, 9);
+            grid.add(entity);
+            stack.add(entity);
+        }
+        assertEquals(5, grid.count(7, 9));
+
+        // Taking one out of the middle keeps the rest linked
+        grid.remove(stack.remove(2));
+        grid.move(stack.get(0), 8, 9);
+        assertEquals(3, grid.count(7, 9));
+        assertEquals(1, grid.count(8, 9));
+
+        Set<Entity> walked = new HashSet<>();
+        for (int slot = grid.head(7, 9); slot != OccupancyGrid.NONE; slot = grid.next(slot))
+            walked.add(grid.getEntity(slot));
+        assertEquals(new HashSet<>(stack.subList(1, 4)), walked);
+
+        // Adding twice is ignored, and only entities carrying the component count for contains
+        grid.add(stack.get(1));
+        assertEquals(3, grid.count(7, 9));
+        stack.get(1).add(new AIComponent());
+        assertTrue(grid.contains(7, 9, Family.all(AIComponent.class).get()));
+        assertFalse(grid.contains(8, 9, Family.all(AIComponent.class).get()));
+    }
+
+    private interface Query {
+        int run(Array<Entity> out);
+    }
+
+    private static void assertQuery(Set<Entity> expected, Query query) {
+        Array<Entity> out = new Array<>();
+        out.add(new Entity()); // Queries append, they must not clear what is already there
+
+        int added = query.run(out);
+        assertEquals(expected.size(), added);
+        assertEquals(expected.size() + 1, out.size);
+
+        Set<Entity> found = new HashSet<>();
+        for (int i = 1; i < out.size; ++i)
+            assertTrue(found.add(out.get(i)), "Reported twice");
+        assertEquals(expected, found);
+    }
+
+    private static Set<Entity> rect(List<Entity> entities, int minX, int minY, int maxX, int maxY) {
+        Set<Entity> inside = new HashSet<>();
+        for (Entity entity : entities) {
+            PositionComponent position = Mappers.POSITION.get(entity);
+            if (position.x >= minX && position.x <= maxX && position.y >= minY && position.y <= maxY) inside.add(entity);
+        }
+        return inside;
+    }
+
+    // The field of view's circle: squared distance within the squared radius
+    private static Set<Entity> radius(List<Entity> entities, int x, int y, int radius) {
+        Set<Entity> inside = new HashSet<>();
+        for (Entity entity : entities) {
+            PositionComponent position = Mappers.POSITION.get(entity);
+            int dx = position.x - x, dy = position.y - y;
+            if (dx * dx + dy * dy <= radius * radius) inside.add(entity);
+        }
+        return inside;
+    }
+
+    private static Entity entity(int x, int y) {
+        Entity entity = new Entity();
+        PositionComponent position = new PositionComponent();
+        position.x = x;
+        position.y = y;
+        entity.add(position);
+        return entity;
+    }
+}
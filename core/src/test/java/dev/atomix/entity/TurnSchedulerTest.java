@@ -0,0 +1,142 @@
+package dev.atomix.entity;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import dev.atomix.level.TileGrid;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the calendar queue of {@link TurnScheduler} against a plain simulation: actors act exactly at multiples of
+ * their delay, in time order, including delays longer than the ring. Actors far from the player go dormant instead of
+ * acting and come back one delay after the player gets close.
+ */
+class TurnSchedulerTest {
+
+    private static final int WAKE_RADIUS = 12;
+
+    @Test
+    void actorsActAtEveryMultipleOfTheirDelay() {
+        TurnScheduler scheduler = new TurnScheduler(new TileGrid(64, 64), WAKE_RADIUS);
+        SplittableRandom random = new SplittableRandom(3L);
+        List<Entity> actors = new ArrayList<>();
+
+        // Mixed speeds, a few of them slower than the ring is long
+        for (int i = 0; i < 40; ++i) {
+            int delay = i % 8 == 0 ? 1500 + random.nextInt(2000) : 1 + random.nextInt(300);
+            Entity actor = actor(random.nextInt(20), random.nextInt(20), delay);
+            scheduler.schedule(actor);
+            actors.add(actor);
+        }
+        assertEquals(40, scheduler.getActiveCount());
+
+        HashMap<Entity, List<Long>> acted = new HashMap<>();
+        long[] last = { 0L };
+        for (int turn = 0; turn < 80; ++turn) {
+            scheduler.advance(TurnScheduler.NORMAL_DELAY, 10, 10, entity -> {
+                // Never out of time order
+                long now = scheduler.getTime();
+                assertTrue(now >= last[0]);
+                last[0] = now;
+                acted.computeIfAbsent(entity, key -> new ArrayList<>()).add(now);
+            });
+        }
+
+        long end = scheduler.getTime();
+        assertEquals(80L * TurnScheduler.NORMAL_DELAY, end);
+        for (Entity actor : actors) {
+            int delay = Mappers.AI.get(actor).delay;
+            List<Long> expected = new ArrayList<>();
+            for (long time = delay; time <= end; time += delay)
+                expected.add(time);
+            assertEquals(expected, acted.getOrDefault(actor, List.of()), "delay " + delay);
+        }
+    }
+
+    @Test
+    void advanceCountsTheActorsThatActed() {
+        TurnScheduler scheduler = new TurnScheduler(new TileGrid(64, 64), WAKE_RADIUS);
+        scheduler.schedule(actor(5, 5, 50));
+        scheduler.schedule(actor(6, 5, 100));
+        scheduler.schedule(actor(7, 5, 300));
+
+        assertEquals(2 + 1, scheduler.advance(100, 5, 5, entity -> { }));
+        assertEquals(2 + 1, scheduler.advance(100, 5, 5, entity -> { }));
+        assertEquals(2 + 1 + 1, scheduler.advance(100, 5, 5, entity -> { }));
+        assertEquals(4, scheduler.getActed());
+    }
+
+    @Test
+    void distantActorsSleepUntilThePlayerComesClose() {
+        TurnScheduler scheduler = new TurnScheduler(new TileGrid(256, 256), WAKE_RADIUS);
+        Entity near = actor(20, 20, 100);
+        Entity far = actor(200, 200, 100);
+        scheduler.schedule(near);
+        scheduler.schedule(far);
+
+        Array<Entity> acted = new Array<>();
+        scheduler.advance(100, 20, 20, acted::add);
+        assertEquals(1, acted.size);
+        assertSame(near, acted.first());
+        assertEquals(1, scheduler.getActiveCount());
+        assertEquals(1, scheduler.getDormantCount());
+
+        // Still asleep while the player stays away, and its missed turns are never made up
+        for (int turn = 0; turn < 10; ++turn) {
+            acted.clear();
+            scheduler.advance(100, 20, 20, acted::add);
+            assertFalse(acted.contains(far, true));
+        }
+
+        // Just outside the wake radius nothing happens, and the actor left behind falls asleep in turn
+        scheduler.advance(100, 200 - WAKE_RADIUS - 1, 200, entity -> fail("Dormant actor acted"));
+        assertEquals(2, scheduler.getDormantCount());
+
+        // Walking up to it wakes it, and it acts one delay after waking
+        long woken = scheduler.getTime();
+        List<Long> times = new ArrayList<>();
+        scheduler.advance(100, 200 - WAKE_RADIUS, 200, entity -> {
+            if (entity == far) times.add(scheduler.getTime());
+        });
+        assertEquals(List.of(woken + 100), times);
+        assertEquals(1, scheduler.getDormantCount());
+        assertEquals(1, scheduler.getActiveCount());
+    }
+
+    @Test
+    void unschedulingRemovesActiveAndDormantActors() {
+        TurnScheduler scheduler = new TurnScheduler(new TileGrid(256, 256), WAKE_RADIUS);
+        Entity near = actor(20, 20, 100);
+        Entity far = actor(200, 200, 100);
+        scheduler.schedule(near);
+        scheduler.schedule(far);
+        scheduler.advance(100, 20, 20, entity -> { });
+
+        scheduler.unschedule(far);
+        scheduler.unschedule(near);
+        assertEquals(0, scheduler.getActiveCount());
+        assertEquals(0, scheduler.getDormantCount());
+
+        // Neither comes back, wherever the player goes
+        assertEquals(0, scheduler.advance(500, 200, 200, entity -> fail("Unscheduled actor acted")));
+        assertEquals(0, scheduler.advance(500, 20, 20, entity -> fail("Unscheduled actor acted")));
+    }
+
+    private static Entity actor(int x, int y, int delay) {
+        Entity entity = new Entity();
+        PositionComponent position = new PositionComponent();
+        position.x = x;
+        position.y = y;
+        AIComponent ai = new AIComponent();
+        ai.delay = delay;
+        entity.add(position);
+        entity.add(ai);
+        return entity;
+    }
+}
@@ -0,0 +1,138 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link AStar} against a plain breadth-first search on generated levels: on a uniform-cost grid BFS gives the
+ * exact shortest distance, so every path A* finds must be valid and exactly that long.
+ */
+class AStarTest {
+
+    private static final long[] SEEDS = { 1L, 42L, 1337L, 0xDEADBEEFL };
+    private static final int QUERIES = 200;
+
+    @Test
+    void pathLengthsMatchBreadthFirstSearch() {
+        for (long seed : SEEDS) {
+            TileGrid tiles = new MapGenerator(seed, 96, 72).generate().getTiles();
+            AStar.Passable passable = (x, y) -> tiles.get(x, y) != Map.TileType.WALL;
+            AStar pathFinder = new AStar(tiles.getWidth(), tiles.getHeight());
+            IntArray floors = floors(tiles, passable);
+            IntArray path = new IntArray();
+            SplittableRandom random = new SplittableRandom(seed);
+
+            for (int i = 0; i < QUERIES; ++i) {
+                int start = floors.get(random.nextInt(floors.size));
+                int goal = floors.get(random.nextInt(floors.size));
+                int startX = start % tiles.getWidth(), startY = start / tiles.getWidth();
+                int goalX = goal % tiles.getWidth(), goalY = goal / tiles.getWidth();
+
+                int expected = distance(tiles, passable, startX, startY, goalX, goalY);
+                boolean found = pathFinder.findPath(startX, startY, goalX, goalY, passable, path);
+
+                String query = "seed " + seed + ": " + startX + "," + startY + " -> " + goalX + "," + goalY;
+                assertEquals(expected >= 0, found, query);
+                if (!found) continue;
+
+                assertEquals(expected, path.size - 1, query);
+                assertPath(pathFinder, passable, path, startX, startY, goalX, goalY, query);
+            }
+        }
+    }
+
+    @Test
+    void unreachableGoalIsNotFound() {
+        TileGrid tiles = new TileGrid(16, 16);
+        tiles.fill(Map.TileType.FLOOR);
+        // Wall the goal in completely
+        for (int x = 9; x <= 11; ++x)
+            for (int y = 9; y <= 11; ++y)
+                if (x != 10 || y != 10) tiles.set(x, y, Map.TileType.WALL);
+
+        AStar.Passable passable = (x, y) -> tiles.get(x, y) != Map.TileType.WALL;
+        IntArray path = new IntArray();
+
+        assertFalse(new AStar(16, 16).findPath(1, 1, 10, 10, passable, path));
+        assertEquals(0, path.size);
+        assertEquals(-1, distance(tiles, passable, 1, 1, 10, 10));
+    }
+
+    @Test
+    void searchesCanBeReused() {
+        TileGrid tiles = new MapGenerator(7L, 64, 48).generate().getTiles();
+        AStar.Passable passable = (x, y) -> tiles.get(x, y) != Map.TileType.WALL;
+        AStar pathFinder = new AStar(tiles.getWidth(), tiles.getHeight());
+        IntArray floors = floors(tiles, passable);
+        int start = floors.first(), goal = floors.peek();
+        int startX = start % tiles.getWidth(), startY = start / tiles.getWidth();
+        int goalX = goal % tiles.getWidth(), goalY = goal / tiles.getWidth();
+
+        IntArray first = new IntArray(), second = new IntArray();
+        pathFinder.findPath(startX, startY, goalX, goalY, passable, first);
+        pathFinder.findPath(goalX, goalY, startX, startY, passable, new IntArray());
+        pathFinder.findPath(startX, startY, goalX, goalY, passable, second);
+
+        assertArrayEquals(first.toArray(), second.toArray());
+    }
+
+    private static void assertPath(AStar pathFinder, AStar.Passable passable, IntArray path,
+                                   int startX, int startY, int goalX, int goalY, String query) {
+        assertEquals(pathFinder.pack(startX, startY), path.first(), query);
+        assertEquals(pathFinder.pack(goalX, goalY), path.peek(), query);
+
+        for (int i = 0; i < path.size; ++i) {
+            int x = pathFinder.unpackX(path.get(i)), y = pathFinder.unpackY(path.get(i));
+            assertTrue(passable.isPassable(x, y), query);
+            if (i == 0) continue;
+
+            int px = pathFinder.unpackX(path.get(i - 1)), py = pathFinder.unpackY(path.get(i - 1));
+            assertEquals(1, Math.abs(x - px) + Math.abs(y - py), query);
+        }
+    }
+
+    // Every passable tile, packed as y * width + x
+    private static IntArray floors(TileGrid tiles, AStar.Passable passable) {
+        IntArray floors = new IntArray();
+        for (int y = 0; y < tiles.getHeight(); ++y)
+            for (int x = 0; x < tiles.getWidth(); ++x)
+                if (passable.isPassable(x, y)) floors.add(y * tiles.getWidth() + x);
+        return floors;
+    }
+
+    // Breadth-first distance in steps, or -1 if the goal cannot be reached
+    private static int distance(TileGrid tiles, AStar.Passable passable, int startX, int startY, int goalX, int goalY) {
+        int width = tiles.getWidth(), height = tiles.getHeight();
+        int[] distances = new int[width * height];
+        Arrays.fill(distances, -1);
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        distances[startY * width + startX] = 0;
+        queue.add(startY * width + startX);
+
+        int[] dx = { -1, 1, 0, 0 }, dy = { 0, 0, -1, 1 };
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            int x = current % width, y = current / width;
+            if (x == goalX && y == goalY) return distances[current];
+
+            for (int d = 0; d < 4; ++d) {
+                int nx = x + dx[d], ny = y + dy[d];
+                if (nx < 0 || ny < 0 || nx >= width || ny >= height) continue;
+
+                int next = ny * width + nx;
+                if (distances[next] != -1 || !passable.isPassable(nx, ny)) continue;
+
+                distances[next] = distances[current] + 1;
+                queue.add(next);
+            }
+        }
+        return -1;
+    }
+}
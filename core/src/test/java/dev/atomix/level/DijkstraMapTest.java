@@ -0,0 +1,161 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the incremental updates of {@link DijkstraMap} leave the same field a full recompute builds: after every
+ * random add, remove and move of a goal, each tile must hold its breadth-first distance to the nearest remaining goal.
+ */
+class DijkstraMapTest {
+
+    private static final long[] SEEDS = { 1L, 42L, 1337L, 0xDEADBEEFL };
+    private static final int STEPS = 150;
+
+    @Test
+    void incrementalUpdatesMatchAFullRecompute() {
+        for (long seed : SEEDS) {
+            TileGrid tiles = new MapGenerator(seed, 96, 72).generate().getTiles();
+            IntArray floors = floors(tiles);
+            DijkstraMap field = new DijkstraMap(tiles);
+            IntArray goals = new IntArray();
+            SplittableRandom random = new SplittableRandom(seed);
+
+            for (int step = 0; step < STEPS; ++step) {
+                int operation = goals.size == 0 ? 0 : random.nextInt(3);
+                String action;
+                if (operation == 0) {
+                    int goal = floors.get(random.nextInt(floors.size));
+                    field.addGoal(field.unpackX(goal), field.unpackY(goal));
+                    goals.add(goal);
+                    action = "add";
+                } else if (operation == 1) {
+                    int goal = goals.removeIndex(random.nextInt(goals.size));
+                    assertTrue(field.removeGoal(field.unpackX(goal), field.unpackY(goal)));
+                    action = "remove";
+                } else {
+                    // A single step, like the player walking, or a jump across the level
+                    int index = random.nextInt(goals.size);
+                    int from = goals.get(index);
+                    int to = random.nextBoolean() ? step(tiles, field, from, random) : floors.get(random.nextInt(floors.size));
+                    field.moveGoal(field.unpackX(from), field.unpackY(from), field.unpackX(to), field.unpackY(to));
+                    goals.set(index, to);
+                    action = "move";
+                }
+
+                assertEquals(goals.size, field.getGoalCount());
+                assertField(tiles, field, goals, "seed " + seed + ", step " + step + " (" + action + ")");
+            }
+        }
+    }
+
+    @Test
+    void duplicateGoalsAndGoalsOnWalls() {
+        TileGrid tiles = new TileGrid(16, 16);
+        tiles.fill(Map.TileType.FLOOR);
+        tiles.set(8, 8, Map.TileType.WALL);
+        DijkstraMap field = new DijkstraMap(tiles);
+        IntArray goals = new IntArray();
+
+        // Two goals on one tile: removing one leaves the other in place
+        field.addGoal(3, 3);
+        field.addGoal(3, 3);
+        goals.add(field.pack(3, 3));
+        assertTrue(field.removeGoal(3, 3));
+        assertField(tiles, field, goals, "duplicate");
+
+        // A goal on a wall is kept but reaches nothing
+        field.addGoal(8, 8);
+        assertEquals(2, field.getGoalCount());
+        assertEquals(DijkstraMap.UNREACHABLE, field.getDistance(8, 8));
+        assertField(tiles, field, goals, "wall");
+        assertTrue(field.removeGoal(8, 8));
+
+        assertFalse(field.removeGoal(10, 10));
+        assertTrue(field.removeGoal(3, 3));
+        assertField(tiles, field, new IntArray(), "empty");
+    }
+
+    @Test
+    void nextStepsDownToTheGoal() {
+        TileGrid tiles = new MapGenerator(7L, 96, 72).generate().getTiles();
+        IntArray floors = floors(tiles);
+        DijkstraMap field = new DijkstraMap(tiles);
+        int goal = floors.get(0);
+        field.setGoal(field.unpackX(goal), field.unpackY(goal));
+
+        for (int i = 0; i < floors.size; i += 7) {
+            int node = floors.get(i);
+            int distance = field.getDistance(field.unpackX(node), field.unpackY(node));
+            if (distance == DijkstraMap.UNREACHABLE) continue;
+
+            // Following next() takes exactly as many steps as the distance says
+            int steps = 0;
+            for (int next; (next = field.next(field.unpackX(node), field.unpackY(node))) != -1; node = next)
+                steps++;
+            assertEquals(goal, node);
+            assertEquals(distance, steps);
+        }
+    }
+
+    private static void assertField(TileGrid tiles, DijkstraMap field, IntArray goals, String context) {
+        int[] expected = distances(tiles, field, goals);
+        for (int x = 0; x < tiles.getWidth(); ++x)
+            for (int y = 0; y < tiles.getHeight(); ++y)
+                assertEquals(expected[field.pack(x, y)], field.getDistance(x, y), context + " at " + x + "," + y);
+    }
+
+    // Brute force: a fresh multi-goal breadth-first search over the floor tiles
+    private static int[] distances(TileGrid tiles, DijkstraMap field, IntArray goals) {
+        int[] distance = new int[tiles.getWidth() * tiles.getHeight()];
+        Arrays.fill(distance, DijkstraMap.UNREACHABLE);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int i = 0; i < goals.size; ++i) {
+            int goal = goals.get(i);
+            if (!floor(tiles, field.unpackX(goal), field.unpackY(goal)) || distance[goal] == 0) continue;
+            distance[goal] = 0;
+            queue.add(goal);
+        }
+
+        int[][] steps = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            for (int[] step : steps) {
+                int x = field.unpackX(current) + step[0], y = field.unpackY(current) + step[1];
+                if (!floor(tiles, x, y)) continue;
+
+                int node = field.pack(x, y);
+                if (distance[node] != DijkstraMap.UNREACHABLE) continue;
+                distance[node] = distance[current] + 1;
+                queue.add(node);
+            }
+        }
+        return distance;
+    }
+
+    // A random floor neighbor of the node, or the node itself if it has none
+    private static int step(TileGrid tiles, DijkstraMap field, int node, SplittableRandom random) {
+        int x = field.unpackX(node), y = field.unpackY(node);
+        int[][] steps = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+        int[] step = steps[random.nextInt(steps.length)];
+        return floor(tiles, x + step[0], y + step[1]) ? field.pack(x + step[0], y + step[1]) : node;
+    }
+
+    private static boolean floor(TileGrid tiles, int x, int y) {
+        return x >= 0 && y >= 0 && x < tiles.getWidth() && y < tiles.getHeight() && tiles.get(x, y) == Map.TileType.FLOOR;
+    }
+
+    private static IntArray floors(TileGrid tiles) {
+        IntArray floors = new IntArray();
+        for (int x = 0; x < tiles.getWidth(); ++x)
+            for (int y = 0; y < tiles.getHeight(); ++y)
+                if (tiles.get(x, y) == Map.TileType.FLOOR) floors.add(x * tiles.getHeight() + y);
+        return floors;
+    }
+}
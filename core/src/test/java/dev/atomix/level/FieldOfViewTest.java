@@ -0,0 +1,114 @@
+package dev.atomix.level;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks {@link FieldOfView} on generated levels and hand-made rooms: sight between floor tiles goes both ways, walls
+ * block what is behind them, the radius is a circle, and explored tiles stay explored after the viewer moves on.
+ */
+class FieldOfViewTest {
+
+    private static final long[] SEEDS = { 1L, 42L, 1337L };
+    private static final int RADIUS = 8;
+
+    @Test
+    void floorTilesSeeEachOtherBothWays() {
+        for (long seed : SEEDS) {
+            TileGrid tiles = new MapGenerator(seed, 64, 48).generate().getTiles();
+            int width = tiles.getWidth(), height = tiles.getHeight();
+            FieldOfView vision = new FieldOfView(tiles);
+
+            // Everything each floor tile sees, indexed by the viewer
+            boolean[][] sees = new boolean[width * height][];
+            for (int x = 0; x < width; ++x) {
+                for (int y = 0; y < height; ++y) {
+                    if (tiles.get(x, y) != Map.TileType.FLOOR) continue;
+
+                    vision.compute(x, y, RADIUS);
+                    boolean[] visible = new boolean[width * height];
+                    for (int tx = 0; tx < width; ++tx)
+                        for (int ty = 0; ty < height; ++ty)
+                            visible[tx * height + ty] = vision.isVisible(tx, ty);
+                    sees[x * height + y] = visible;
+                }
+            }
+
+            for (int a = 0; a < sees.length; ++a) {
+                if (sees[a] == null) continue;
+                for (int b = a + 1; b < sees.length; ++b) {
+                    if (sees[b] == null) continue;
+                    String pair = "seed " + seed + ": " + a / height + "," + a % height + " <-> " + b / height + "," + b % height;
+                    assertEquals(sees[a][b], sees[b][a], pair);
+                }
+            }
+        }
+    }
+
+    @Test
+    void wallsBlockSight() {
+        TileGrid tiles = room(21, 21);
+        // A wall straight across the room, two tiles above the viewer
+        for (int x = 0; x < 21; ++x)
+            tiles.set(x, 12, Map.TileType.WALL);
+
+        FieldOfView vision = new FieldOfView(tiles);
+        vision.compute(10, 10, RADIUS);
+
+        assertTrue(vision.isVisible(10, 12)); // The wall itself is seen
+        for (int x = 0; x < 21; ++x)
+            for (int y = 13; y < 21; ++y)
+                assertFalse(vision.isVisible(x, y), "behind the wall at " + x + "," + y);
+
+        // A single pillar only hides the tiles straight behind it
+        TileGrid open = room(21, 21);
+        open.set(12, 10, Map.TileType.WALL);
+        FieldOfView pillar = new FieldOfView(open);
+        pillar.compute(10, 10, RADIUS);
+
+        assertTrue(pillar.isVisible(12, 10));
+        assertFalse(pillar.isVisible(13, 10));
+        assertFalse(pillar.isVisible(16, 10));
+        assertTrue(pillar.isVisible(13, 12));
+        assertTrue(pillar.isVisible(8, 10));
+    }
+
+    @Test
+    void radiusIsACircle() {
+        TileGrid tiles = room(41, 41);
+        FieldOfView vision = new FieldOfView(tiles);
+        vision.compute(20, 20, RADIUS);
+
+        for (int x = 0; x < 41; ++x) {
+            for (int y = 0; y < 41; ++y) {
+                int dx = x - 20, dy = y - 20;
+                assertEquals(dx * dx + dy * dy <= RADIUS * RADIUS, vision.isVisible(x, y), "at " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void exploredTilesOutliveVisibility() {
+        TileGrid tiles = room(64, 16);
+        FieldOfView vision = new FieldOfView(tiles);
+
+        vision.compute(5, 8, RADIUS);
+        vision.compute(50, 8, RADIUS);
+
+        assertFalse(vision.isVisible(5, 8));
+        assertTrue(vision.isExplored(5, 8));
+        assertTrue(vision.isVisible(50, 8));
+        assertFalse(vision.isExplored(30, 8));
+
+        vision.reset();
+        assertFalse(vision.isExplored(5, 8));
+        assertFalse(vision.isVisible(50, 8));
+    }
+
+    private static TileGrid room(int width, int height) {
+        TileGrid tiles = new TileGrid(width, height);
+        tiles.fill(Map.TileType.FLOOR);
+        return tiles;
+    }
+}
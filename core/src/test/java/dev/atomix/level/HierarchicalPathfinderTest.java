@@ -0,0 +1,122 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares {@link HierarchicalPathfinder} with {@link AStar} on generated levels spanning many clusters. HPA* paths are
+ * only optimal over the abstract graph, so they may be longer than the A* path, but they must be valid, find exactly the
+ * same goals, and stay within a bound of the shortest length.
+ */
+class HierarchicalPathfinderTest {
+
+    private static final long[] SEEDS = { 1L, 42L, 1337L, 0xDEADBEEFL };
+    private static final int QUERIES = 300;
+
+    // Every cluster crossing is forced through an entrance transition, a detour along part of the border at most. On
+    // these levels the detours of a whole path add up to less than two cluster widths.
+    private static final int MAX_DETOUR = 2 * TileGrid.CHUNK_SIZE;
+
+    // Over many queries the abstract graph should cost only a few percent
+    private static final double MAX_AVERAGE_RATIO = 1.10;
+
+    @Test
+    void pathsStayWithinTheBoundOfAStar() {
+        for (long seed : SEEDS) {
+            TileGrid tiles = new MapGenerator(seed, 192, 144).setRoomCount(20, 30).generate().getTiles();
+            AStar.Passable passable = (x, y) -> tiles.get(x, y) != Map.TileType.WALL;
+            AStar exact = new AStar(tiles.getWidth(), tiles.getHeight());
+            HierarchicalPathfinder hierarchical = new HierarchicalPathfinder(tiles, passable);
+            IntArray floors = floors(tiles, passable);
+            IntArray shortest = new IntArray(), path = new IntArray();
+            SplittableRandom random = new SplittableRandom(seed);
+            long shortestTotal = 0, total = 0;
+
+            for (int i = 0; i < QUERIES; ++i) {
+                int start = floors.get(random.nextInt(floors.size));
+                int goal = floors.get(random.nextInt(floors.size));
+                int startX = hierarchical.unpackX(start), startY = hierarchical.unpackY(start);
+                int goalX = hierarchical.unpackX(goal), goalY = hierarchical.unpackY(goal);
+                String query = "seed " + seed + ": " + startX + "," + startY + " -> " + goalX + "," + goalY;
+
+                boolean reachable = exact.findPath(startX, startY, goalX, goalY, passable, shortest);
+                assertEquals(reachable, hierarchical.findPath(startX, startY, goalX, goalY, path), query);
+                if (!reachable) continue;
+
+                assertPath(hierarchical, passable, path, startX, startY, goalX, goalY, query);
+                int length = path.size - 1, optimal = shortest.size - 1;
+                assertTrue(length >= optimal, query);
+                assertTrue(length <= optimal + MAX_DETOUR, query + ": " + length + " steps, shortest is " + optimal);
+
+                shortestTotal += optimal;
+                total += length;
+            }
+
+            assertTrue(total <= shortestTotal * MAX_AVERAGE_RATIO, "seed " + seed + ": " + total + " steps against " + shortestTotal);
+        }
+    }
+
+    @Test
+    void queriesInsideOneClusterAreExact() {
+        TileGrid tiles = new TileGrid(64, 64);
+        tiles.fill(Map.TileType.FLOOR);
+        AStar.Passable passable = (x, y) -> tiles.get(x, y) != Map.TileType.WALL;
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder(tiles, passable);
+        IntArray path = new IntArray();
+
+        assertTrue(hierarchical.findPath(2, 3, 29, 30, path));
+        assertEquals(27 + 27, path.size - 1);
+        assertPath(hierarchical, passable, path, 2, 3, 29, 30, "open cluster");
+
+        assertTrue(hierarchical.findPath(5, 5, 5, 5, path));
+        assertEquals(1, path.size);
+    }
+
+    @Test
+    void rebuildPicksUpChangedTiles() {
+        TileGrid tiles = new TileGrid(64, 64);
+        tiles.fill(Map.TileType.FLOOR);
+        AStar.Passable passable = (x, y) -> tiles.get(x, y) != Map.TileType.WALL;
+        HierarchicalPathfinder hierarchical = new HierarchicalPathfinder(tiles, passable);
+        IntArray path = new IntArray();
+
+        // Wall off the left half entirely
+        for (int y = 0; y < 64; ++y)
+            tiles.set(32, y, Map.TileType.WALL);
+        hierarchical.rebuild();
+        assertFalse(hierarchical.findPath(5, 5, 50, 50, path));
+
+        tiles.set(32, 40, Map.TileType.FLOOR);
+        hierarchical.rebuild();
+        assertTrue(hierarchical.findPath(5, 5, 50, 50, path));
+        assertPath(hierarchical, passable, path, 5, 5, 50, 50, "through the gap");
+    }
+
+    private static void assertPath(HierarchicalPathfinder pathFinder, AStar.Passable passable, IntArray path,
+                                   int startX, int startY, int goalX, int goalY, String query) {
+        assertEquals(pathFinder.pack(startX, startY), path.first(), query);
+        assertEquals(pathFinder.pack(goalX, goalY), path.peek(), query);
+
+        for (int i = 0; i < path.size; ++i) {
+            int x = pathFinder.unpackX(path.get(i)), y = pathFinder.unpackY(path.get(i));
+            assertTrue(passable.isPassable(x, y), query);
+            if (i == 0) continue;
+
+            int px = pathFinder.unpackX(path.get(i - 1)), py = pathFinder.unpackY(path.get(i - 1));
+            assertEquals(1, Math.abs(x - px) + Math.abs(y - py), query);
+        }
+    }
+
+    // Every passable tile, packed as x * height + y
+    private static IntArray floors(TileGrid tiles, AStar.Passable passable) {
+        IntArray floors = new IntArray();
+        for (int x = 0; x < tiles.getWidth(); ++x)
+            for (int y = 0; y < tiles.getHeight(); ++y)
+                if (passable.isPassable(x, y)) floors.add(x * tiles.getHeight() + y);
+        return floors;
+    }
+}
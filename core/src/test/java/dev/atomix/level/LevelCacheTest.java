@@ -0,0 +1,101 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the disk tier of {@link LevelCache}: spilled levels come back with their explored tiles, the snapshots stay
+ * under the disk budget and disposing the cache deletes them.
+ */
+class LevelCacheTest {
+
+    private static final TextureRegion REGION = new TextureRegion();
+
+    @Test
+    void spilledLevelKeepsWhatWasExplored() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        LevelCache cache = new LevelCache(1, directory, REGION, REGION, REGION);
+
+        Map map = cache.get(new MapGenerator(3L, 80, 60));
+        FieldOfView vision = new FieldOfView(map.getTiles());
+        map.setFieldOfView(vision);
+        Room room = new MapGenerator(3L, 80, 60).generate().getRooms().get(0);
+        vision.compute(room.centerX(), room.centerY(), 8);
+
+        // Pushes the first level out of memory and onto disk
+        cache.get(new MapGenerator(4L, 80, 60));
+        Map loaded = cache.get(new MapGenerator(3L, 80, 60));
+
+        assertEquals(1, cache.getDiskHits());
+        assertNotSame(map, loaded);
+        assertNotNull(loaded.getFieldOfView());
+        for (int x = 0; x < 80; ++x) {
+            for (int y = 0; y < 60; ++y) {
+                assertEquals(map.getTile(x, y), loaded.getTile(x, y));
+                assertEquals(vision.isExplored(x, y), loaded.getFieldOfView().isExplored(x, y));
+            }
+        }
+
+        cache.dispose();
+    }
+
+    @Test
+    void levelWithoutFieldOfViewLoadsWithoutOne() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        LevelCache cache = new LevelCache(1, directory, REGION, REGION, REGION);
+
+        cache.get(new MapGenerator(3L, 80, 60));
+        cache.get(new MapGenerator(4L, 80, 60));
+
+        assertNull(cache.get(new MapGenerator(3L, 80, 60)).getFieldOfView());
+        cache.dispose();
+    }
+
+    @Test
+    void snapshotsStayUnderTheDiskBudget() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        long snapshot = LevelSnapshot.sizeOf(80, 60, false);
+        LevelCache cache = new LevelCache(1, directory, snapshot * 3, REGION, REGION, REGION);
+
+        for (long seed = 0; seed < 10; ++seed)
+            cache.get(new MapGenerator(seed, 80, 60));
+
+        assertEquals(9, cache.getEvictions());
+        assertEquals(snapshot * 3, cache.getDiskBytes());
+        assertEquals(3, count(directory));
+
+        // The newest spills are the ones kept
+        for (long seed = 6; seed < 9; ++seed)
+            assertTrue(cache.contains(LevelCache.Key.of(new MapGenerator(seed, 80, 60))));
+        assertFalse(cache.contains(LevelCache.Key.of(new MapGenerator(5L, 80, 60))));
+
+        cache.dispose();
+    }
+
+    @Test
+    void disposeDeletesSpilledSnapshots() throws IOException {
+        Path directory = Files.createTempDirectory("levels");
+        LevelCache cache = new LevelCache(2, directory, REGION, REGION, REGION);
+
+        for (long seed = 0; seed < 6; ++seed)
+            cache.get(new MapGenerator(seed, 80, 60));
+        assertEquals(4, count(directory));
+
+        cache.dispose();
+        assertEquals(0, count(directory));
+        assertEquals(0, cache.getDiskBytes());
+    }
+
+    private static long count(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
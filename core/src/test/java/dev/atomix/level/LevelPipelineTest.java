@@ -0,0 +1,97 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that {@link LevelPipeline} hands floors out in seed order, retries a floor only when the failure came from
+ * outside the generator, and reports a failure instead of blocking forever.
+ */
+class LevelPipelineTest {
+
+    private static final TextureRegion REGION = new TextureRegion();
+
+    static {
+        // Failures are logged through Gdx.app, which doesn't exist headless
+        Gdx.app = (Application) Proxy.newProxyInstance(Application.class.getClassLoader(), new Class<?>[] { Application.class },
+            (proxy, method, args) -> null);
+    }
+
+    @Test
+    void floorsComeOutInSeedOrder() {
+        long[] seeds = seeds(7L, 4);
+        LevelPipeline pipeline = new LevelPipeline(7L, 0, 64, 48, 2, LevelPipelineTest::load, ForkJoinPool.commonPool());
+
+        for (long seed : seeds)
+            assertEquals(seed, next(pipeline).getSeed());
+        pipeline.dispose();
+
+        // Resuming a run skips the floors already played
+        LevelPipeline resumed = new LevelPipeline(7L, 2, 64, 48, 1, LevelPipelineTest::load, ForkJoinPool.commonPool());
+        assertEquals(seeds[2], resumed.take().getSeed());
+        resumed.dispose();
+    }
+
+    @Test
+    void transientFailuresAreRetriedWithTheSameSeed() {
+        AtomicInteger calls = new AtomicInteger();
+        LevelPipeline pipeline = new LevelPipeline(7L, 0, 64, 48, 1, generator -> {
+            // Every floor is rejected twice before it goes through
+            if (calls.incrementAndGet() % 3 != 0) return CompletableFuture.failedFuture(new RejectedExecutionException("Busy"));
+            return load(generator);
+        }, ForkJoinPool.commonPool());
+
+        assertEquals(seeds(7L, 1)[0], pipeline.take().getSeed());
+        assertNull(pipeline.getFailure());
+        pipeline.dispose();
+    }
+
+    @Test
+    void generatorFailuresStopThePipelineWithoutRetrying() {
+        AtomicInteger calls = new AtomicInteger();
+        LevelPipeline pipeline = new LevelPipeline(7L, 0, 64, 48, 2, generator -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Broken generator");
+        }, ForkJoinPool.commonPool());
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, pipeline::take);
+        assertNotNull(pipeline.getFailure());
+        assertNotNull(thrown.getCause());
+
+        // Tried once, and the floor after it was never started
+        assertEquals(1, calls.get());
+        assertNull(pipeline.poll());
+        pipeline.dispose();
+    }
+
+    // The seeds a run hands its floors, drawn the same way the pipeline draws them
+    private static long[] seeds(long runSeed, int count) {
+        SplittableRandom random = new SplittableRandom(runSeed);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; ++i)
+            seeds[i] = random.nextLong();
+        return seeds;
+    }
+
+    private static CompletableFuture<Map> load(MapGenerator generator) {
+        return generator.generateAsync().thenApply(done -> new Map(done, REGION, REGION, REGION));
+    }
+
+    private static Map next(LevelPipeline pipeline) {
+        Map map;
+        while ((map = pipeline.poll()) == null)
+            Thread.onSpinWait();
+        return map;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector3;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a level is fully determined by its seed: the same seed gives the same tiles and colors, and wrapping one
+ * generator's output more than once doesn't change its palette.
+ */
+class MapGeneratorTest {
+
+    private static final TextureRegion REGION = new TextureRegion();
+
+    @Test
+    void wrappingTwiceGivesTheSamePalette() {
+        MapGenerator generator = new MapGenerator(5L, 64, 48).generate();
+        Map first = new Map(generator, REGION, REGION, REGION);
+        Map second = new Map(generator, REGION, REGION, REGION);
+
+        assertEquals(first.getBaseColor(), second.getBaseColor());
+        assertEquals(first.getAccentColor(), second.getAccentColor());
+    }
+
+    @Test
+    void sameSeedGivesTheSameLevel() {
+        Map first = new Map(new MapGenerator(9L, 64, 48).generate(), REGION, REGION, REGION);
+        Map second = new Map(new MapGenerator(9L, 64, 48).generate(), REGION, REGION, REGION);
+
+        assertEquals(first.getBaseColor(), second.getBaseColor());
+        assertEquals(first.getAccentColor(), second.getAccentColor());
+        for (int x = 0; x < 64; ++x)
+            for (int y = 0; y < 48; ++y)
+                assertEquals(first.getTile(x, y), second.getTile(x, y));
+
+        // A different seed picks different colors
+        Vector3 other = new Map(new MapGenerator(10L, 64, 48).generate(), REGION, REGION, REGION).getBaseColor();
+        assertNotEquals(first.getBaseColor(), other);
+    }
+}
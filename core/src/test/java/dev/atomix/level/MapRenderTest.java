@@ -0,0 +1,149 @@
+package dev.atomix.level;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the culled {@link Map#render(Batch, int, OrthographicCamera)} path headless, against a batch that only counts
+ * draws, and checks the count against the viewport.
+ */
+class MapRenderTest {
+
+    private static final int TILE_SIZE = 16;
+
+    @Test
+    void drawsOnlyTilesInTheViewport() {
+        Map map = map(128, 96);
+
+        // 320x240 pixels is 20x15 tiles, plus the row and column touching the far edges
+        assertEquals(21 * 16, render(map, camera(320, 240, 800, 600)));
+        assertEquals(expected(map, 320, 240, 800, 600), render(map, camera(320, 240, 800, 600)));
+
+        // Off the tile edges it cuts a partial tile on each side instead, which is the same count
+        assertEquals(expected(map, 320, 240, 808, 600), render(map, camera(320, 240, 808, 600)));
+    }
+
+    @Test
+    void drawCountDoesNotGrowWithTheLevel() {
+        int small = render(map(64, 64), camera(320, 240, 400, 400));
+        int large = render(map(1024, 1024), camera(320, 240, 400, 400));
+
+        assertEquals(small, large);
+        assertTrue(small < 64 * 64);
+    }
+
+    @Test
+    void viewportIsClampedToTheLevel() {
+        Map map = map(64, 48);
+
+        // Centred on the bottom left corner, only the top right quarter of the viewport is on the level
+        assertEquals(11 * 8, render(map, camera(320, 240, 0, 0)));
+        assertEquals(expected(map, 320, 240, 0, 0), render(map, camera(320, 240, 0, 0)));
+
+        // Entirely beside the level
+        assertEquals(0, render(map, camera(320, 240, -1000, -1000)));
+        assertEquals(0, render(map, camera(320, 240, 64 * TILE_SIZE + 1000, 0)));
+    }
+
+    @Test
+    void unseenTilesAreNotCounted() {
+        MapGenerator generator = new MapGenerator(1L, 128, 96).generate();
+        TextureRegion region = new TextureRegion();
+        Map map = new Map(generator, region, region, region);
+        Room room = generator.getRooms().get(0);
+
+        FieldOfView vision = new FieldOfView(map.getTiles());
+        map.setFieldOfView(vision);
+        vision.compute(room.centerX(), room.centerY(), 10);
+
+        // Centred on the viewer, so everything seen is in view but most of the view was never seen
+        OrthographicCamera camera = camera(640, 480, room.centerX() * TILE_SIZE, room.centerY() * TILE_SIZE);
+        int drawn = render(map, camera);
+
+        TileView view = new TileView().set(camera, TILE_SIZE, map.getWidth(), map.getHeight());
+        int explored = 0;
+        for (int x = view.minX; x <= view.maxX; ++x)
+            for (int y = view.minY; y <= view.maxY; ++y)
+                if (vision.isExplored(x, y)) explored++;
+
+        assertEquals(explored, drawn);
+        assertTrue(drawn > 0);
+        assertTrue(drawn < view.count());
+    }
+
+    @Test
+    void zoomWidensTheView() {
+        Map map = map(256, 256);
+        OrthographicCamera camera = camera(320, 240, 2048, 2048);
+        int normal = render(map, camera);
+
+        camera.zoom = 2.0f;
+        assertEquals(41 * 31, render(map, camera));
+        assertTrue(render(map, camera) > normal);
+    }
+
+    @Test
+    void onlyViewsThatFitTheCachePoolAreCached() {
+        TileView view = new TileView();
+
+        // 640x480 pixels touches at most 3x3 chunks of 32 tiles
+        assertTrue(StaticTileLayer.fits(view.set(camera(640, 480, 2000, 2000), TILE_SIZE, 1024, 1024)));
+
+        // Zoomed far out the same screen spans over a hundred chunks, more than the pool holds
+        OrthographicCamera far = camera(640, 480, 8000, 8000);
+        far.zoom = 10.0f;
+        assertFalse(StaticTileLayer.fits(view.set(far, TILE_SIZE, 1024, 1024)));
+
+        // Clamped to a small level it fits again
+        assertTrue(StaticTileLayer.fits(view.set(far, TILE_SIZE, 96, 96)));
+    }
+
+    private static Map map(int width, int height) {
+        TextureRegion region = new TextureRegion();
+        return new Map(new MapGenerator(1L, width, height).generate(), region, region, region);
+    }
+
+    private static OrthographicCamera camera(float width, float height, float x, float y) {
+        // Culling only reads the position, viewport and zoom, so update() and its native matrix code aren't needed
+        OrthographicCamera camera = new OrthographicCamera();
+        camera.viewportWidth = width;
+        camera.viewportHeight = height;
+        camera.position.set(x, y, 0.0f);
+        return camera;
+    }
+
+    // Issues the culled render through a batch that counts draws, and checks the count it reports matches
+    private static int render(Map map, OrthographicCamera camera) {
+        int[] draws = { 0 };
+        Batch batch = (Batch) Proxy.newProxyInstance(Batch.class.getClassLoader(), new Class<?>[] { Batch.class },
+            (proxy, method, args) -> {
+                if (method.getName().equals("draw")) draws[0]++;
+                return null;
+            });
+
+        int reported = map.render(batch, TILE_SIZE, camera);
+        assertEquals(draws[0], reported);
+        return reported;
+    }
+
+    // Brute force: every tile of the level whose square touches the viewport
+    private static int expected(Map map, float width, float height, float x, float y) {
+        float left = x - width * 0.5f, right = x + width * 0.5f;
+        float bottom = y - height * 0.5f, top = y + height * 0.5f;
+
+        int count = 0;
+        for (int tx = 0; tx < map.getWidth(); ++tx) {
+            for (int ty = 0; ty < map.getHeight(); ++ty) {
+                float tileLeft = tx * TILE_SIZE, tileBottom = ty * TILE_SIZE;
+                if (tileLeft + TILE_SIZE > left && tileLeft <= right && tileBottom + TILE_SIZE > bottom && tileBottom <= top) count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,131 @@
+package dev.atomix.level;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the scanline fill of {@link PolygonRasterizer} with a per-tile even-odd containment test, the ray cast the
+ * rasterizer replaced, on hand-made and random polygons.
+ */
+class PolygonRasterizerTest {
+
+    private static final int SIZE = 48;
+
+    @Test
+    void triangle() {
+        assertMatches(polygon(4, 4, 40, 10, 12, 38));
+    }
+
+    @Test
+    void axisAlignedRectangle() {
+        assertMatches(polygon(5, 5, 20, 5, 20, 15, 5, 15));
+    }
+
+    @Test
+    void concaveShape() {
+        // An L with a notch cut into its long side
+        assertMatches(polygon(2, 2, 30, 2, 30, 10, 18, 10, 14, 6, 10, 10, 10, 40, 2, 40));
+    }
+
+    @Test
+    void star() {
+        List<Point> star = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            double angle = Math.PI * i / 5.0;
+            double radius = i % 2 == 0 ? 20.0 : 8.0;
+            star.add(new Point((int) Math.round(24 + radius * Math.cos(angle)), (int) Math.round(24 + radius * Math.sin(angle))));
+        }
+        assertMatches(star);
+    }
+
+    @Test
+    void selfIntersectingBowtie() {
+        assertMatches(polygon(4, 4, 40, 40, 40, 4, 4, 40));
+    }
+
+    @Test
+    void degeneratePolygons() {
+        assertMatches(polygon(10, 10, 30, 10, 20, 10)); // Flat
+        assertMatches(polygon(10, 10, 30, 30)); // Too few vertices
+    }
+
+    @Test
+    void clippedToRectangleAndGrid() {
+        List<Point> polygon = polygon(-10, -6, 60, 3, 50, 70, -4, 52);
+        assertMatches(polygon, 0, 0, SIZE, SIZE);
+        assertMatches(polygon, 7, 11, 31, 29);
+        assertMatches(polygon, -5, -5, SIZE + 5, SIZE + 5);
+    }
+
+    @Test
+    void randomPolygons() {
+        SplittableRandom random = new SplittableRandom(1L);
+        PolygonRasterizer rasterizer = new PolygonRasterizer();
+
+        // One rasterizer for all of them, so its vertex buffers are reused and regrown along the way
+        for (int i = 0; i < 2000; ++i) {
+            List<Point> polygon = new ArrayList<>();
+            int count = 3 + random.nextInt(12);
+            for (int v = 0; v < count; ++v)
+                polygon.add(new Point(random.nextInt(-6, SIZE + 6), random.nextInt(-6, SIZE + 6)));
+
+            assertMatches(rasterizer, polygon, 2, 3, SIZE - 4, SIZE - 2);
+        }
+    }
+
+    private static void assertMatches(List<Point> polygon) {
+        assertMatches(polygon, 0, 0, SIZE, SIZE);
+    }
+
+    private static void assertMatches(List<Point> polygon, int minX, int minY, int maxX, int maxY) {
+        assertMatches(new PolygonRasterizer(), polygon, minX, minY, maxX, maxY);
+    }
+
+    private static void assertMatches(PolygonRasterizer rasterizer, List<Point> polygon, int minX, int minY, int maxX, int maxY) {
+        TileGrid tiles = new TileGrid(SIZE, SIZE);
+        rasterizer.fill(tiles, polygon, minX, minY, maxX, maxY, Map.TileType.FLOOR);
+
+        for (int x = 0; x < SIZE; ++x) {
+            for (int y = 0; y < SIZE; ++y) {
+                boolean clipped = x >= minX && x < maxX && y >= minY && y < maxY;
+                boolean expected = clipped && polygon.size() >= 3 && contains(polygon, x, y);
+                int tileX = x, tileY = y;
+                assertEquals(expected, tiles.get(x, y) == Map.TileType.FLOOR, () -> describe(polygon) + " at " + tileX + "," + tileY);
+            }
+        }
+    }
+
+    // Even-odd ray cast towards -x, with the half-open crossing rule the rasterizer documents
+    private static boolean contains(List<Point> polygon, int x, int y) {
+        boolean inside = false;
+        for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+            Point a = polygon.get(i), b = polygon.get(j);
+            if ((a.y < y && b.y >= y) || (b.y < y && a.y >= y)) {
+                double crossing = a.x + (double) (y - a.y) / (b.y - a.y) * (b.x - a.x);
+                if (crossing < x) inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static String describe(List<Point> polygon) {
+        StringBuilder builder = new StringBuilder("[");
+        for (Point point : polygon) {
+            if (builder.length() > 1) builder.append(' ');
+            builder.append(point.x).append(',').append(point.y);
+        }
+        return builder.append(']').toString();
+    }
+
+    private static List<Point> polygon(int... coordinates) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < coordinates.length; i += 2)
+            points.add(new Point(coordinates[i], coordinates[i + 1]));
+        return points;
+    }
+}
@@ -0,0 +1,76 @@
+package dev.atomix.level;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the neighbor masks {@link TileGrid} keeps with masks recomputed from scratch, after generation and through
+ * single tile changes, and checks that chunks with the same mask everywhere don't allocate an array for it.
+ */
+class TileGridTest {
+
+    private static final long[] SEEDS = { 1L, 42L, 1337L };
+
+    @Test
+    void generatedMasksMatchTheirNeighbors() {
+        for (long seed : SEEDS)
+            assertMasks(new MapGenerator(seed, 96, 72).generate().getTiles());
+    }
+
+    @Test
+    void setKeepsMasksUpToDateAcrossChunks() {
+        // Not a multiple of the chunk size, so the clipped edge chunks are covered too
+        TileGrid tiles = new TileGrid(70, 45);
+        tiles.fill(Map.TileType.NONE);
+        SplittableRandom random = new SplittableRandom(7L);
+
+        for (int i = 0; i < 3000; ++i) {
+            Map.TileType type = Map.TileType.VALUES[random.nextInt(Map.TileType.VALUES.length)];
+            tiles.set(random.nextInt(tiles.getWidth()), random.nextInt(tiles.getHeight()), type);
+            if (i % 500 == 0) assertMasks(tiles);
+        }
+        assertMasks(tiles);
+    }
+
+    @Test
+    void uniformChunksStoreNoMaskArray() {
+        TileGrid tiles = new TileGrid(160, 160);
+        tiles.fill(Map.TileType.NONE);
+
+        // Inner chunks see the same type all around; only chunks on the grid's edge have tiles missing neighbors
+        assertNull(tiles.getChunk(1, 1).masks);
+        assertNull(tiles.getChunk(3, 3).masks);
+        assertNotNull(tiles.getChunk(0, 0).masks);
+        assertEquals(0xFF, tiles.getMask(50, 50));
+
+        // A tile on a chunk corner changes masks in the three chunks around it too, and nowhere else
+        tiles.set(64, 64, Map.TileType.FLOOR);
+        assertNotNull(tiles.getChunk(2, 2).masks);
+        assertNotNull(tiles.getChunk(1, 1).masks);
+        assertNotNull(tiles.getChunk(1, 2).masks);
+        assertNotNull(tiles.getChunk(2, 1).masks);
+        assertNull(tiles.getChunk(3, 3).masks);
+        assertMasks(tiles);
+    }
+
+    private static void assertMasks(TileGrid tiles) {
+        for (int x = 0; x < tiles.getWidth(); ++x)
+            for (int y = 0; y < tiles.getHeight(); ++y)
+                assertEquals(mask(tiles, x, y), tiles.getMask(x, y), "mask at " + x + "," + y);
+    }
+
+    // Same bit order as TileGrid, clockwise from north; tiles past the edge never match
+    private static int mask(TileGrid tiles, int x, int y) {
+        int[][] offsets = { { 0, 1 }, { 1, 1 }, { 1, 0 }, { 1, -1 }, { 0, -1 }, { -1, -1 }, { -1, 0 }, { -1, 1 } };
+        int mask = 0;
+        for (int bit = 0; bit < offsets.length; ++bit) {
+            int nx = x + offsets[bit][0], ny = y + offsets[bit][1];
+            if (nx < 0 || ny < 0 || nx >= tiles.getWidth() || ny >= tiles.getHeight()) continue;
+            if (tiles.getId(nx, ny) == tiles.getId(x, y)) mask |= 1 << bit;
+        }
+        return mask;
+    }
+}
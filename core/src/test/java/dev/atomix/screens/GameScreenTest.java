@@ -0,0 +1,97 @@
+package dev.atomix.screens;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import dev.atomix.level.TileView;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks how {@link GameScreen#follow} places the camera: centred on the viewer in the open, stopped at the edges of the
+ * level, and centred on levels smaller than the screen.
+ */
+class GameScreenTest {
+
+    private static final int TILE_SIZE = 16;
+    private static final float EPSILON = 1.0e-3f;
+
+    @Test
+    void centresOnTheViewerAwayFromTheEdges() {
+        OrthographicCamera camera = camera(320, 240);
+
+        GameScreen.follow(camera, 50, 40, TILE_SIZE, 100, 80);
+        assertEquals(50.5f * TILE_SIZE, camera.position.x, EPSILON);
+        assertEquals(40.5f * TILE_SIZE, camera.position.y, EPSILON);
+
+        // One step right moves the camera by exactly one tile
+        GameScreen.follow(camera, 51, 40, TILE_SIZE, 100, 80);
+        assertEquals(51.5f * TILE_SIZE, camera.position.x, EPSILON);
+        assertEquals(40.5f * TILE_SIZE, camera.position.y, EPSILON);
+    }
+
+    @Test
+    void stopsAtTheEdgesOfTheLevel() {
+        OrthographicCamera camera = camera(320, 240);
+
+        GameScreen.follow(camera, 0, 0, TILE_SIZE, 100, 80);
+        assertEquals(160.0f, camera.position.x, EPSILON);
+        assertEquals(120.0f, camera.position.y, EPSILON);
+
+        GameScreen.follow(camera, 99, 79, TILE_SIZE, 100, 80);
+        assertEquals(100 * TILE_SIZE - 160.0f, camera.position.x, EPSILON);
+        assertEquals(80 * TILE_SIZE - 120.0f, camera.position.y, EPSILON);
+
+        // Clamped on one axis only
+        GameScreen.follow(camera, 50, 2, TILE_SIZE, 100, 80);
+        assertEquals(50.5f * TILE_SIZE, camera.position.x, EPSILON);
+        assertEquals(120.0f, camera.position.y, EPSILON);
+    }
+
+    @Test
+    void zoomWidensTheClamp() {
+        OrthographicCamera camera = camera(320, 240);
+        camera.zoom = 2.0f;
+
+        GameScreen.follow(camera, 0, 0, TILE_SIZE, 100, 80);
+        assertEquals(320.0f, camera.position.x, EPSILON);
+        assertEquals(240.0f, camera.position.y, EPSILON);
+    }
+
+    @Test
+    void centresLevelsSmallerThanTheScreen() {
+        OrthographicCamera camera = camera(320, 240);
+
+        // 10 tiles wide is 160 pixels, narrower than the screen; 40 tiles high is taller
+        GameScreen.follow(camera, 3, 30, TILE_SIZE, 10, 40);
+        assertEquals(80.0f, camera.position.x, EPSILON);
+        assertEquals(30.5f * TILE_SIZE, camera.position.y, EPSILON);
+    }
+
+    @Test
+    void viewerIsAlwaysOnScreenAndTheViewStaysOnTheLevel() {
+        OrthographicCamera camera = camera(320, 240);
+        TileView view = new TileView();
+        int width = 60, height = 45;
+
+        for (int x = 0; x < width; ++x) {
+            for (int y = 0; y < height; ++y) {
+                GameScreen.follow(camera, x, y, TILE_SIZE, width, height);
+
+                float left = camera.position.x - 160.0f, bottom = camera.position.y - 120.0f;
+                assertTrue(left >= -EPSILON && left + 320.0f <= width * TILE_SIZE + EPSILON);
+                assertTrue(bottom >= -EPSILON && bottom + 240.0f <= height * TILE_SIZE + EPSILON);
+
+                view.set(camera, TILE_SIZE, width, height);
+                assertTrue(x >= view.minX && x <= view.maxX && y >= view.minY && y <= view.maxY);
+            }
+        }
+    }
+
+    // Only the viewport and zoom are read, so update() and its native matrix code aren't needed
+    private static OrthographicCamera camera(float width, float height) {
+        OrthographicCamera camera = new OrthographicCamera();
+        camera.viewportWidth = width;
+        camera.viewportHeight = height;
+        return camera;
+    }
+}